@@ -3,32 +3,61 @@ package packControlador;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import packModelo.Modo;
+import packModelo.ResultadoJugada;
+
+import java.util.Observer;
+import java.util.concurrent.CompletableFuture;
 
 public class Conecta4 {
 
+	/**
+	 * Controlador de la partida por defecto, la que se muestra en la interfaz.
+	 */
 	private static Conecta4 mConecta4;
+	private final GestorPartidas gestor;
 
-	private Conecta4() {
+	public Conecta4(GestorPartidas pGestor) {
+		this.gestor = pGestor;
 	}
 
-	public static Conecta4 getmConecta4() {
+	public static synchronized Conecta4 getmConecta4() {
 		if (mConecta4 == null) {
-			mConecta4 = new Conecta4();
+			mConecta4 = new Conecta4(GestorPartidas.getmGestorPartidas());
 		}
 		return mConecta4;
 	}
 
 	/**
 	 * Pre: recibe como parámetro la columna introducida por el jugador
-	 * Post:devuelve un json que contiene la información de lo sucedido durante la partida
+	 * Post: devuelve el resultado de lo sucedido durante la partida
 	 *
 	 * @param pColumna la columna en la que se va a introducir la ficha en la jugada
-	 * @return Json de la forma {x:int, y:int, lleno: boolean, posicionesGanadoras {x1:,y1:,x2:,y2:...}} que contiene la
-	 * información de lo sucedido durante la partida y nulo en caso de que no se haya podido introducir la ficha
+	 * @return el resultado de la jugada, que el modo reutiliza en cada turno, o nulo en caso de que no se haya podido
+	 * introducir la ficha
 	 * @author Nuria Lebeña
 	 */
-	public JSONObject jugarPartida(int pColumna) {
-		return GestorPartidas.getmGestorPartidas().jugarPartida(pColumna);
+	public ResultadoJugada jugarPartida(int pColumna) {
+		return gestor.jugarPartida(pColumna);
+	}
+
+	/**
+	 * Igual que jugarPartida, pero el turno se juega en un hilo aparte y no se espera a que el ordenador conteste. La
+	 * interfaz debe volver a su hilo para usar el resultado y los avisos del tablero, por ejemplo con
+	 * thenAcceptAsync(..., Platform::runLater).
+	 *
+	 * @param pColumna la columna en la que se va a introducir la ficha en la jugada
+	 * @return el futuro con el resultado como JSON de la forma {fila:int, columna:int, lleno:boolean,
+	 * haGanadoA:boolean, haGanadoB:boolean, lineaGanadora:long}, o con null si la columna está llena
+	 */
+	public CompletableFuture<JSONObject> jugarPartidaAsync(int pColumna) {
+		return gestor.jugarPartidaAsync(pColumna);
+	}
+
+	/**
+	 * Cancela la jugada pedida con jugarPartidaAsync que todavía no ha terminado, por ejemplo al terminar la partida.
+	 */
+	public void cancelarJugada() {
+		gestor.cancelarJugada();
 	}
 
 	/**
@@ -38,7 +67,7 @@ public class Conecta4 {
 	 * @author Alvaro Dueñas
 	 */
 	public String getModoJuego() {
-		return GestorPartidas.getmGestorPartidas().getModoJuego();
+		return gestor.getModoJuego();
 	}
 
 	/**
@@ -49,15 +78,28 @@ public class Conecta4 {
 	 */
 	public void setModoJuego(String pModo) {
 		Modo modo = ModoFactory.getmModoFactory().createModo(pModo);
-		GestorPartidas.getmGestorPartidas().setModoJuego(modo);
+		gestor.setModoJuego(modo);
+	}
+
+	/**
+	 * Resuelve la posición actual de la partida: quién gana con juego perfecto, en cuántas jugadas y con qué columna,
+	 * y lo que ha costado calcularlo.
+	 *
+	 * @param pMilisegundos tiempo máximo, 0 para no poner límite
+	 * @return JSON de la forma {resuelto:boolean, columna:int, resultado:int, distancia:int, nodos:long, tiempo:long,
+	 * memoria:long}, donde resultado es 1 si gana el jugador al que le toca, 2 si es empate y 3 si pierde, tiempo va en
+	 * milisegundos y memoria en bytes. resultado y distancia no aparecen si no ha dado tiempo
+	 */
+	public JSONObject resolverPartida(long pMilisegundos) {
+		return gestor.resolverPartida(pMilisegundos);
 	}
 
 	public JSONArray cargarRankingFacil() {
-		return GestorPartidas.getmGestorPartidas().cargarRankingFacil();
+		return gestor.cargarRankingFacil();
 	}
 
 	public JSONArray cargarRankingDificil() {
-		return GestorPartidas.getmGestorPartidas().cargarRankingDificil();
+		return gestor.cargarRankingDificil();
 	}
 
 	/**
@@ -69,7 +111,24 @@ public class Conecta4 {
 	 */
 
 	public void guardarPartida(String pNombre, int pPuntuacion) {
-		GestorPartidas.getmGestorPartidas().guardarPartida(pNombre, pPuntuacion);
+		gestor.guardarPartida(pNombre, pPuntuacion);
+	}
+
+	/**
+	 * Añade un observador que será notificado cada vez que se introduzca una ficha en el tablero de la partida.
+	 *
+	 * @param pObservador el observador del tablero
+	 */
+	public void observarTablero(Observer pObservador) {
+		gestor.observarTablero(pObservador);
+	}
+
+	/**
+	 * @param pLinea línea ganadora de la jugada
+	 * @return JSON de la forma [{x:fila, y:columna}, ...] con las coordenadas de las casillas
+	 */
+	public JSONArray getCoordenadas(long pLinea) {
+		return gestor.getCoordenadas(pLinea);
 	}
 
 	/**
@@ -78,6 +137,6 @@ public class Conecta4 {
 	 * @author Nuria Lebeña
 	 */
 	public void inicializarTablero() {
-		GestorPartidas.getmGestorPartidas().inicializarTablero();
+		gestor.inicializarTablero();
 	}
 }
\ No newline at end of file
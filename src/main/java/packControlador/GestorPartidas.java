@@ -6,39 +6,127 @@ import packDao.OrdenadorDDAOImpl;
 import packDao.OrdenadorFDAOImpl;
 import packModelo.Juego;
 import packModelo.Modo;
+import packModelo.ResultadoJugada;
+import packModelo.Tablero;
 
 import java.sql.SQLException;
 import java.util.Observable;
+import java.util.Observer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class GestorPartidas extends Observable {
 
+	/**
+	 * Gestor de la partida por defecto, la que se juega sobre Tablero.getmTablero().
+	 */
 	private static GestorPartidas mGestorPartidas;
-	private Juego juego;
+	private final Juego juego;
+	/**
+	 * Hilo en el que se calculan, de una en una y en orden, las jugadas pedidas con jugarPartidaAsync, y la última
+	 * que se ha pedido.
+	 */
+	private ExecutorService ordenador;
+	private CompletableFuture<JSONObject> jugadaEnCurso;
 
-	private GestorPartidas() {
-		juego = new Juego();
+	public GestorPartidas(Juego pJuego) {
+		juego = pJuego;
 	}
 
-	public static GestorPartidas getmGestorPartidas() {
+	public static synchronized GestorPartidas getmGestorPartidas() {
 		if (mGestorPartidas == null) {
-			mGestorPartidas = new GestorPartidas();
+			mGestorPartidas = new GestorPartidas(new Juego(Tablero.getmTablero()));
 		}
 		return mGestorPartidas;
 	}
 
 	/**
 	 * Pre: recibe como parámetro la columna introducida por el jugador
-	 * Post:devuelve un json que contiene la información de lo sucedido durante la partida
+	 * Post: devuelve el resultado de lo sucedido durante la partida
 	 *
 	 * @param pColumna
-	 * @return Json de la forma {x:int, y:int, lleno: boolean, posicionesGanadoras {x1:,y1:,x2:,y2:...}} que contiene la
-	 * información de lo sucedido durante la partida y nulo en caso de que no se haya podido introducir la ficha
+	 * @return el resultado de la jugada, que el modo reutiliza en cada turno, o nulo en caso de que no se haya podido
+	 * introducir la ficha
 	 * @author Nuria Lebeña
 	 */
-	public JSONObject jugarPartida(int pColumna) {
+	public ResultadoJugada jugarPartida(int pColumna) {
 		return juego.jugarPartida(pColumna);
 	}
 
+	/**
+	 * Igual que jugarPartida pero en el hilo del ordenador, para que quien llama no se quede esperando a que el modo
+	 * elija su respuesta. Las fichas se colocan en ese hilo, así que los observadores del tablero también reciben
+	 * los avisos en él.
+	 *
+	 * @param pColumna la columna en la que se va a introducir la ficha en la jugada
+	 * @return el futuro con el resultado como JSON (ver ResultadoJugada.toJSON), o con null si la columna está llena
+	 */
+	public synchronized CompletableFuture<JSONObject> jugarPartidaAsync(int pColumna) {
+		if (ordenador == null) {
+			ordenador = Executors.newSingleThreadExecutor(tarea -> {
+				Thread hilo = new Thread(tarea, "Conecta4-ordenador");
+				//QUE NO IMPIDA CERRAR LA APLICACIÓN
+				hilo.setDaemon(true);
+				return hilo;
+			});
+		}
+		//LA CANCELACIÓN SE QUITA AHORA Y NO EN EL HILO, PARA QUE UN cancelarJugada DE MIENTRAS ESPERA NO SE PIERDA
+		juego.prepararJugada();
+		jugadaEnCurso = CompletableFuture.supplyAsync(() -> {
+			ResultadoJugada res = juego.jugarPartidaPreparada(pColumna);
+			//EL MODO REUTILIZA EL RESULTADO, ASÍ QUE SE COPIA ANTES DE SALIR DEL HILO
+			return res == null ? null : res.toJSON();
+		}, ordenador);
+		return jugadaEnCurso;
+	}
+
+	/**
+	 * Cancela la última jugada pedida con jugarPartidaAsync: si no ha empezado ya no se hace, y si el ordenador está
+	 * buscando su respuesta se le pide que termine cuanto antes. En los dos casos el futuro queda cancelado y su
+	 * resultado no llega a quien lo pidió.
+	 */
+	public synchronized void cancelarJugada() {
+		if (jugadaEnCurso != null) {
+			jugadaEnCurso.cancel(false);
+			jugadaEnCurso = null;
+		}
+		juego.cancelarJugada();
+	}
+
+	/**
+	 * Espera a que el hilo del ordenador termine las jugadas que tenga pedidas.
+	 */
+	private void esperarJugadas() {
+		ExecutorService hilo;
+		synchronized (this) {
+			hilo = ordenador;
+		}
+		if (hilo == null) {
+			return;
+		}
+		try {
+			hilo.submit(() -> {
+			}).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			System.out.println("Error en el hilo del ordenador: " + e.getCause());
+		}
+	}
+
+	/**
+	 * Resuelve la posición actual de la partida con juego perfecto.
+	 *
+	 * @param pMilisegundos tiempo máximo, 0 para no poner límite
+	 * @return JSON de la forma {resuelto:boolean, columna:int, resultado:int, distancia:int, nodos:long, tiempo:long,
+	 * memoria:long}
+	 */
+	public JSONObject resolverPartida(long pMilisegundos) {
+		return juego.resolver(pMilisegundos);
+	}
+
 	public JSONArray cargarRankingFacil() {
 		OrdenadorFDAOImpl ordenador = new OrdenadorFDAOImpl();
 		try {
@@ -84,9 +172,20 @@ public class GestorPartidas extends Observable {
 	 * @author Nuria Lebeña
 	 */
 	public void inicializarTablero() {
+		//UNA JUGADA CANCELADA PUEDE ESTAR TERMINANDO, Y NO PUEDE COLOCAR SU FICHA EN EL TABLERO NUEVO
+		juego.cancelarJugada();
+		esperarJugadas();
 		juego.inicializarTablero();
 	}
 
+	public void observarTablero(Observer pObservador) {
+		juego.observarTablero(pObservador);
+	}
+
+	public JSONArray getCoordenadas(long pLinea) {
+		return juego.getCoordenadas(pLinea);
+	}
+
 	/**
 	 * El método obtiene el modo en el que la aplicación esta configurada para jugar.
 	 *
@@ -104,6 +203,9 @@ public class GestorPartidas extends Observable {
 	 * @author Alvaro Dueñas
 	 */
 	public void setModoJuego(Modo pModo) {
+		//EL MODO ANTERIOR SE CIERRA, ASÍ QUE NO PUEDE QUEDARLE NINGUNA JUGADA EN MARCHA
+		juego.cancelarJugada();
+		esperarJugadas();
 		juego.setModoJuego(pModo);
 		setChanged();
 		notifyObservers();
@@ -1,9 +1,13 @@
 package packControlador;
 
+import packModelo.LibroAperturas;
 import packModelo.Modo;
 import packModelo.OrdenadorD;
+import packModelo.OrdenadorE;
 import packModelo.OrdenadorF;
+import packModelo.OrdenadorM;
 import packModelo.OvO;
+import packModelo.TablaFinales;
 
 public class ModoFactory {
 
@@ -31,6 +35,25 @@ public class ModoFactory {
             return new OrdenadorD();
         } else if ("Ordenador modo Facil".equals(pModo)) {
             return new OrdenadorF();
+        } else if ("Ordenador modo Experto".equals(pModo)) {
+            OrdenadorE experto = new OrdenadorE(OrdenadorE.PROFUNDIDAD_MAXIMA);
+            experto.setTiempoMaximo(OrdenadorE.TIEMPO_DEFECTO);
+            experto.setLibro(LibroAperturas.getmLibro());
+            experto.setFinales(TablaFinales.getmTabla());
+            experto.setPensarEnEspera(true);
+            return experto;
+        } else if ("Ordenador modo Montecarlo".equals(pModo)) {
+            OrdenadorM montecarlo = new OrdenadorM();
+            montecarlo.setHilos(Runtime.getRuntime().availableProcessors());
+            montecarlo.setLibro(LibroAperturas.getmLibro());
+            return montecarlo;
+        } else if (pModo != null && pModo.startsWith(OrdenadorE.PREFIJO_NIVEL)) {
+            //"Ordenador nivel N", CON N DE 1 A OrdenadorE.NIVEL_MAXIMO
+            try {
+                return OrdenadorE.crearNivel(Integer.parseInt(pModo.substring(OrdenadorE.PREFIJO_NIVEL.length())));
+            } catch (IllegalArgumentException e) {
+                System.out.println("Nivel no válido: " + pModo);
+            }
         }
 		return new OvO();
 	}
@@ -0,0 +1,120 @@
+package packMain;
+
+import packModelo.TablaFinales;
+import packModelo.Tablero;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+//GENERA LA TABLA DE FINALES DEL TABLERO POR DEFECTO
+//USO: GenerarFinales [casillas libres] [partidas] [semilla] [fichero]
+//  - SE JUEGAN PARTIDAS AL AZAR HASTA QUE QUEDAN ESAS CASILLAS LIBRES Y SE RESUELVEN TODAS LAS POSICIONES QUE SE PUEDEN
+//    ALCANZAR DESDE CADA UNA, REPARTIÉNDOLAS ENTRE LOS NÚCLEOS
+//  - EL NÚMERO DE POSICIONES CRECE MUY DEPRISA CON LAS CASILLAS LIBRES: CON 100 PARTIDAS SON UNAS 10.000 CON 10
+//    Y MÁS DE 100.000 CON 14
+
+public class GenerarFinales {
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		int vacias = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+		int partidas = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+		long semilla = args.length > 2 ? Long.parseLong(args[2]) : 1;
+		File fichero = new File(args.length > 3 ? args[3] : TablaFinales.FICHERO_DEFECTO);
+		int nucleos = Runtime.getRuntime().availableProcessors();
+
+		List<Tablero> semillas = jugarAlAzar(vacias, partidas, new Random(semilla));
+		System.out.println(semillas.size() + " posiciones de partida con " + vacias + " casillas libres, " + nucleos
+				+ " núcleos");
+		long inicio = System.currentTimeMillis();
+		Map<Long, Integer> resultados = new ConcurrentHashMap<>();
+		ExecutorService pool = Executors.newFixedThreadPool(nucleos);
+		for (Tablero tablero : semillas) {
+			pool.execute(() -> TablaFinales.resolver(tablero, resultados));
+		}
+		pool.shutdown();
+		pool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+		System.out.println(resultados.size() + " posiciones resueltas en " + (System.currentTimeMillis() - inicio)
+				+ " ms");
+
+		TablaFinales.escribir(fichero, Tablero.FILAS, Tablero.COLUMNAS, Tablero.EN_RAYA, vacias, resultados);
+		System.out.println("Tabla escrita en " + fichero + ": " + fichero.length() + " bytes");
+	}
+
+	/**
+	 * Juega partidas al azar hasta que quedan pVacias casillas libres. Para que se parezcan a las de verdad nadie
+	 * completa una línea, se tapan las del rival y se evita dejarle una encima; si no queda más remedio la partida se
+	 * descarta.
+	 *
+	 * @return las posiciones a las que se ha llegado, sin repetir
+	 */
+	private static List<Tablero> jugarAlAzar(int pVacias, int pPartidas, Random pAleatorio) {
+		List<Tablero> semillas = new ArrayList<>();
+		Set<Long> vistas = new HashSet<>();
+		int casillas = Tablero.FILAS * Tablero.COLUMNAS;
+		for (int p = 0; p < pPartidas; p++) {
+			Tablero tablero = new Tablero();
+			int col = 0;
+			while (col != -1 && casillas - tablero.getNumJugadas() > pVacias) {
+				col = elegir(tablero, pAleatorio);
+				if (col != -1) {
+					tablero.jugarSilencioso(col);
+				}
+			}
+			if (col != -1 && vistas.add(tablero.getClave())) {
+				semillas.add(tablero);
+			}
+		}
+		return semillas;
+	}
+
+	/**
+	 * @return una columna al azar que no gana, que tapa la línea del rival si la tiene y que no le deja ganar encima,
+	 * o -1 si no hay ninguna
+	 */
+	private static int elegir(Tablero pTablero, Random pAleatorio) {
+		boolean color = pTablero.getTurno();
+		List<Integer> tapan = new ArrayList<>();
+		List<Integer> seguras = new ArrayList<>();
+		for (int col = 0; col < Tablero.COLUMNAS; col++) {
+			if (pTablero.ocupada(col) || gana(pTablero, col, color)) {
+				continue;
+			}
+			boolean tapa = gana(pTablero, col, !color);
+			pTablero.jugarSilencioso(col);
+			boolean segura = pTablero.ocupada(col) || !gana(pTablero, col, !color);
+			pTablero.deshacer();
+			if (tapa) {
+				tapan.add(col);
+			} else if (segura) {
+				seguras.add(col);
+			}
+		}
+		List<Integer> candidatas = tapan.isEmpty() ? seguras : tapan;
+		if (candidatas.isEmpty() || tapan.size() > 1) {
+			return -1;
+		}
+		return candidatas.get(pAleatorio.nextInt(candidatas.size()));
+	}
+
+	/**
+	 * Pre: la columna no está llena
+	 *
+	 * @return si el jugador completa una línea poniendo en la columna
+	 */
+	private static boolean gana(Tablero pTablero, int pColumna, boolean pColor) {
+		int fila = pTablero.colocarFicha(pColumna, pColor);
+		boolean gana = pTablero.getLineaGanadora(fila, pColumna, pColor) != 0;
+		pTablero.deshacer();
+		return gana;
+	}
+}
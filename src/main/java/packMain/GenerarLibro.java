@@ -0,0 +1,183 @@
+package packMain;
+
+import packModelo.LibroAperturas;
+import packModelo.OrdenadorE;
+import packModelo.Tablero;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//GENERA EL LIBRO DE APERTURAS DEL TABLERO POR DEFECTO BUSCANDO CADA POSICIÓN DE ANTEMANO
+//USO: GenerarLibro [jugadas] [segundos por posición] [fichero]
+//  - SE BUSCAN TODAS LAS POSICIONES CON HASTA ESE NÚMERO DE FICHAS, UNA SOLA VEZ CADA PAREJA DE SIMÉTRICAS
+//  - CADA NÚCLEO BUSCA UNA POSICIÓN DISTINTA CON SU PROPIO MODO EXPERTO
+//  - EL LIBRO GUARDA UNA SOLA ENTRADA POR PAREJA DE SIMÉTRICAS, LA DE MENOR CLAVE (VER LibroAperturas)
+//  - CADA POSICIÓN TERMINADA SE AÑADE AL FICHERO .parcial, Y SI SE VUELVE A LANZAR SE SIGUE DESDE AHÍ
+
+public class GenerarLibro {
+
+	/**
+	 * Tamaño en MB de la tabla de transposición de cada hilo.
+	 */
+	private static final int TABLA_MB = 64;
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		int jugadas = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+		long tiempo = args.length > 1 ? (long) (Double.parseDouble(args[1]) * 1000) : 5000;
+		File fichero = new File(args.length > 2 ? args[2] : LibroAperturas.FICHERO_DEFECTO);
+		File parcial = new File(fichero.getPath() + ".parcial");
+		int nucleos = Runtime.getRuntime().availableProcessors();
+
+		List<int[]> posiciones = enumerar(jugadas);
+		Map<Long, long[]> hechas = leerParcial(parcial);
+		System.out.println(posiciones.size() + " posiciones sin simétricas, " + hechas.size() + " ya buscadas, "
+				+ nucleos + " núcleos");
+
+		ThreadLocal<OrdenadorE> ordenadores = ThreadLocal.withInitial(() -> {
+			OrdenadorE ordenador = new OrdenadorE(OrdenadorE.PROFUNDIDAD_MAXIMA, TABLA_MB);
+			ordenador.setTiempoMaximo(tiempo);
+			return ordenador;
+		});
+		AtomicInteger terminadas = new AtomicInteger(hechas.size());
+		ExecutorService pool = Executors.newFixedThreadPool(nucleos);
+		try (PrintWriter salida = new PrintWriter(new FileWriter(parcial, true))) {
+			//POR SI LA ÚLTIMA LÍNEA SE QUEDÓ A MEDIAS, LAS NUEVAS EMPIEZAN EN OTRA
+			if (!hechas.isEmpty()) {
+				salida.println();
+			}
+			for (int[] apertura : posiciones) {
+				Tablero tablero = preparar(apertura);
+				if (hechas.containsKey(tablero.getClave())) {
+					continue;
+				}
+				pool.execute(() -> {
+					OrdenadorE ordenador = ordenadores.get();
+					int columna = ordenador.elegirColumna(tablero);
+					long[] resultado = {tablero.getClaveEspejo(), columna, ordenador.getValor(),
+							Math.min(ordenador.getProfundidadAlcanzada(), 255)};
+					hechas.put(tablero.getClave(), resultado);
+					synchronized (salida) {
+						salida.println(tablero.getClave() + " " + resultado[0] + " " + resultado[1] + " "
+								+ resultado[2] + " " + resultado[3] + " .");
+						salida.flush();
+					}
+					int n = terminadas.incrementAndGet();
+					if (n % 100 == 0) {
+						System.out.println(n + "/" + posiciones.size());
+					}
+				});
+			}
+			pool.shutdown();
+			pool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+		}
+
+		//EL LIBRO SÓLO GUARDA LA ORIENTACIÓN DE MENOR CLAVE: SI LA BUSCADA ES LA OTRA SE GUARDA SU SIMÉTRICA, CON LA
+		//COLUMNA REFLEJADA, Y AL CONSULTAR SE VUELVE A REFLEJAR
+		List<LibroAperturas.Entrada> entradas = new ArrayList<>();
+		for (Map.Entry<Long, long[]> hecha : hechas.entrySet()) {
+			long clave = hecha.getKey();
+			long[] r = hecha.getValue();
+			if (r[0] < clave) {
+				entradas.add(new LibroAperturas.Entrada(r[0], Tablero.COLUMNAS - 1 - (int) r[1], (int) r[2],
+						(int) r[3]));
+			} else {
+				entradas.add(new LibroAperturas.Entrada(clave, (int) r[1], (int) r[2], (int) r[3]));
+			}
+		}
+		LibroAperturas.escribir(fichero, Tablero.FILAS, Tablero.COLUMNAS, Tablero.EN_RAYA, entradas);
+		System.out.println(entradas.size() + " entradas escritas en " + fichero);
+	}
+
+	/**
+	 * Recorre las partidas desde el tablero vacío y se queda con una posición de cada pareja de simétricas, sin contar
+	 * las que ya tienen ganador o están llenas.
+	 *
+	 * @return las jugadas que llevan a cada posición, de menos fichas a más
+	 */
+	static List<int[]> enumerar(int pJugadas) {
+		List<int[]> posiciones = new ArrayList<>();
+		Set<Long> vistas = new HashSet<>();
+		List<int[]> nivel = new ArrayList<>();
+		nivel.add(new int[0]);
+		for (int n = 0; n <= pJugadas && !nivel.isEmpty(); n++) {
+			List<int[]> siguiente = new ArrayList<>();
+			for (int[] apertura : nivel) {
+				Tablero tablero = preparar(apertura);
+				if (!vistas.add(Math.min(tablero.getClave(), tablero.getClaveEspejo()))) {
+					continue;
+				}
+				posiciones.add(apertura);
+				if (n == pJugadas) {
+					continue;
+				}
+				for (int col = 0; col < Tablero.COLUMNAS; col++) {
+					boolean color = tablero.getTurno();
+					int fila = tablero.jugarSilencioso(col);
+					if (fila == -1) {
+						continue;
+					}
+					if (tablero.getLineaGanadora(fila, col, color) == 0 && !tablero.tableroLleno()) {
+						int[] hija = new int[apertura.length + 1];
+						System.arraycopy(apertura, 0, hija, 0, apertura.length);
+						hija[apertura.length] = col;
+						siguiente.add(hija);
+					}
+					tablero.deshacer();
+				}
+			}
+			nivel = siguiente;
+		}
+		return posiciones;
+	}
+
+	/**
+	 * Lee las posiciones que ya se buscaron en una ejecución anterior. Cada línea acaba en un punto, y la que no lo
+	 * tiene se escribió a medias y se ignora.
+	 *
+	 * @return para cada clave {clave espejo, columna, valor, profundidad}
+	 */
+	private static Map<Long, long[]> leerParcial(File pParcial) throws IOException {
+		Map<Long, long[]> hechas = new ConcurrentHashMap<>();
+		if (!pParcial.isFile()) {
+			return hechas;
+		}
+		try (BufferedReader entrada = new BufferedReader(new FileReader(pParcial))) {
+			String linea;
+			while ((linea = entrada.readLine()) != null) {
+				String[] partes = linea.trim().split(" ");
+				if (partes.length != 6 || !".".equals(partes[5])) {
+					continue;
+				}
+				try {
+					hechas.put(Long.parseLong(partes[0]), new long[]{Long.parseLong(partes[1]),
+							Long.parseLong(partes[2]), Long.parseLong(partes[3]), Long.parseLong(partes[4])});
+				} catch (NumberFormatException e) {
+					System.out.println("Línea no válida en " + pParcial + ": " + linea);
+				}
+			}
+		}
+		return hechas;
+	}
+
+	private static Tablero preparar(int[] pApertura) {
+		Tablero tablero = new Tablero();
+		for (int col : pApertura) {
+			tablero.jugarSilencioso(col);
+		}
+		return tablero;
+	}
+}
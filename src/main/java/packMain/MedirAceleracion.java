@@ -0,0 +1,64 @@
+package packMain;
+
+import packModelo.OrdenadorE;
+import packModelo.Tablero;
+
+//MIDE CUÁNTO SE ACELERA LA BÚSQUEDA DEL MODO EXPERTO AL REPARTIRLA ENTRE VARIOS HILOS
+//USO: MedirAceleracion [profundidad] [segundos por jugada]
+//  - CON PROFUNDIDAD FIJA SE COMPARA EL TIEMPO CON EL DE UN SOLO HILO
+//  - CON TIEMPO FIJO SE COMPARA LA PROFUNDIDAD A LA QUE SE LLEGA
+
+public class MedirAceleracion {
+
+	/**
+	 * Aperturas sobre las que se mide, como columnas jugadas desde el tablero vacío.
+	 */
+	private static final int[][] APERTURAS = {{}, {4, 4}, {4, 3, 5}, {3, 4, 2, 4}, {0, 8, 4, 4, 5, 3}};
+
+	public static void main(String[] args) {
+		int profundidad = args.length > 0 ? Integer.parseInt(args[0]) : 14;
+		long tiempo = args.length > 1 ? (long) (Double.parseDouble(args[1]) * 1000) : 1000;
+		int nucleos = Runtime.getRuntime().availableProcessors();
+		System.out.println("Profundidad " + profundidad + ", " + nucleos + " núcleos");
+		double base = 0;
+		for (int hilos = 1; hilos <= nucleos; hilos *= 2) {
+			long nanos = 0;
+			long nodos = 0;
+			for (int[] apertura : APERTURAS) {
+				OrdenadorE ordenador = new OrdenadorE(profundidad);
+				ordenador.setHilos(hilos);
+				Tablero tablero = preparar(apertura);
+				long inicio = System.nanoTime();
+				ordenador.elegirColumna(tablero);
+				nanos += System.nanoTime() - inicio;
+				nodos += ordenador.getNodos();
+			}
+			if (hilos == 1) {
+				base = nanos;
+			}
+			System.out.println(String.format("%2d hilos: %7d ms, %11d nodos, aceleración %.2f", hilos,
+					nanos / 1000000, nodos, base / nanos));
+		}
+		System.out.println("Tiempo por jugada " + tiempo + " ms");
+		for (int hilos = 1; hilos <= nucleos; hilos *= 2) {
+			int suma = 0;
+			for (int[] apertura : APERTURAS) {
+				OrdenadorE ordenador = new OrdenadorE(OrdenadorE.PROFUNDIDAD_MAXIMA);
+				ordenador.setHilos(hilos);
+				ordenador.setTiempoMaximo(tiempo);
+				ordenador.elegirColumna(preparar(apertura));
+				suma += ordenador.getProfundidadAlcanzada();
+			}
+			System.out.println(String.format("%2d hilos: profundidad media %.1f", hilos,
+					(double) suma / APERTURAS.length));
+		}
+	}
+
+	private static Tablero preparar(int[] pApertura) {
+		Tablero tablero = new Tablero();
+		for (int col : pApertura) {
+			tablero.jugarSilencioso(col);
+		}
+		return tablero;
+	}
+}
@@ -0,0 +1,300 @@
+package packModelo;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Búsqueda negamax con poda alfa-beta que hace un hilo sobre su propia copia del núcleo del tablero. Varios hilos
+ * pueden buscar la misma posición a la vez compartiendo la tabla de transposición: lo que guarda uno le sirve a los
+ * demás para podar.
+ * <p>
+ * La búsqueda se repite con profundidad creciente. Cada 1024 nodos se pregunta si hay que parar; en ese caso
+ * se abandona la iteración en curso, sus valores no se guardan y el resultado es el de la última iteración terminada.
+ * Lo mismo pasa si se ha fijado un máximo de nodos y se supera.
+ * <p>
+ * Para jugar peor a propósito se puede sumar ruido a la valoración estática. El ruido de cada posición sale de su
+ * clave y de una semilla, así que dentro de una búsqueda es siempre el mismo y la tabla de transposición sigue siendo
+ * coherente. La semilla también se mezcla con las claves de la tabla, para que cada búsqueda tenga su propio ruido.
+ */
+class Busqueda {
+
+	private final BooleanSupplier parar;
+	private final TableroBits bits;
+	private final TablaTransposicion tabla;
+	private final TablaFinales finales;
+	private final OrdenJugadas orden;
+	/**
+	 * Fichas que había en la raíz, para saber a qué altura del árbol está cada nodo.
+	 */
+	private int fichasRaiz;
+
+	private long nodos;
+	private long maxNodos = Long.MAX_VALUE;
+	private int ruido;
+	private long semillaRuido;
+	private long aciertosFinales;
+	private boolean abandonada;
+	private int mejorColumna = -1;
+	private int mejorValor;
+	private int valorAlcanzado;
+	private int profundidadAlcanzada;
+
+	/**
+	 * @param pParar     a lo que se pregunta cada cierto número de nodos si hay que parar
+	 * @param pBits      el núcleo sobre el que se busca, que sólo debe usar este hilo
+	 * @param pTabla     la tabla de transposición, que se puede compartir entre hilos
+	 * @param pFinales   la tabla de finales del tablero, null si no hay
+	 * @param pOrden     lo que ordena las columnas de cada nodo, que sólo debe usar este hilo
+	 */
+	Busqueda(BooleanSupplier pParar, TableroBits pBits, TablaTransposicion pTabla, TablaFinales pFinales,
+			 OrdenJugadas pOrden) {
+		this.parar = pParar;
+		this.bits = pBits;
+		this.tabla = pTabla;
+		this.finales = pFinales;
+		this.orden = pOrden;
+	}
+
+	/**
+	 * @param pMaxNodos posiciones que se pueden visitar entre todas las iteraciones antes de abandonar la búsqueda
+	 */
+	void setMaxNodos(long pMaxNodos) {
+		this.maxNodos = pMaxNodos;
+	}
+
+	/**
+	 * @param pRuido   la valoración estática se mueve al azar hasta pRuido arriba o abajo, 0 para no moverla
+	 * @param pSemilla semilla del ruido de cada posición
+	 */
+	void setRuido(int pRuido, long pSemilla) {
+		this.ruido = pRuido;
+		this.semillaRuido = pSemilla;
+	}
+
+	/**
+	 * Pre: el tablero no está lleno y ningún jugador tiene línea
+	 * Post: el núcleo queda como estaba
+	 *
+	 * @param pColor el jugador al que le toca
+	 * @param pDesde profundidad de la primera iteración
+	 * @param pHasta profundidad de la última iteración
+	 */
+	void iterar(boolean pColor, int pDesde, int pHasta) {
+		//SI NO DA TIEMPO A TERMINAR NINGUNA ITERACIÓN SE JUEGA LA PRIMERA COLUMNA LIBRE DEL CENTRO
+		for (int col : orden.getCentro()) {
+			if (!bits.columnaLlena(col)) {
+				mejorColumna = col;
+				break;
+			}
+		}
+		fichasRaiz = bits.getNumFichas();
+		int casillas = bits.getFilas() * bits.getColumnas();
+		int maxima = Math.min(pHasta, casillas - bits.getNumFichas());
+		for (int p = Math.min(pDesde, maxima); p <= maxima; p++) {
+			int columna = buscarRaiz(pColor, p, mejorColumna);
+			if (abandonada) {
+				break;
+			}
+			mejorColumna = columna;
+			valorAlcanzado = mejorValor;
+			profundidadAlcanzada = p;
+			//CON UNA VICTORIA O DERROTA SEGURA NO HACE FALTA MIRAR MÁS
+			if (Math.abs(mejorValor) >= OrdenadorE.VICTORIA - casillas) {
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Una iteración de la búsqueda: prueba todas las columnas con la profundidad dada, empezando por la mejor de la
+	 * iteración anterior, y deja su valor en mejorValor.
+	 *
+	 * @return la mejor columna, que sólo es válida si no se ha abandonado la búsqueda
+	 */
+	private int buscarRaiz(boolean pColor, int pProfundidad, int pPrimera) {
+		int columna = -1;
+		int alfa = -OrdenadorE.VICTORIA - 1;
+		int beta = OrdenadorE.VICTORIA + 1;
+		int n = orden.ordenar(bits, pColor, 0, pPrimera);
+		int[] jugadas = orden.getJugadas(0);
+		for (int i = 0; i < n && !abandonada; i++) {
+			int col = jugadas[i];
+			int valor = probar(col, pColor, pProfundidad, -beta, -alfa);
+			if (columna == -1 || valor > alfa) {
+				alfa = valor;
+				columna = col;
+			}
+		}
+		mejorValor = alfa;
+		return columna;
+	}
+
+	/**
+	 * Pone la ficha del jugador en la columna, valora la posición desde su punto de vista y la vuelve a quitar.
+	 */
+	private int probar(int pColumna, boolean pColor, int pProfundidad, int pAlfa, int pBeta) {
+		int fila = bits.poner(pColumna, pColor);
+		int valor;
+		if (bits.completaLinea(fila, pColumna, pColor)) {
+			nodos++;
+			valor = OrdenadorE.VICTORIA - bits.getNumFichas();
+		} else {
+			valor = -negamax(!pColor, pProfundidad - 1, pAlfa, pBeta);
+		}
+		bits.quitar(pColumna);
+		return valor;
+	}
+
+	/**
+	 * Valora la posición para el jugador al que le toca mirando pProfundidad jugadas por delante. Si algún hijo
+	 * alcanza pBeta se deja de buscar, porque el rival nunca dejaría llegar a esta posición. Antes de buscar se
+	 * consulta la tabla de transposición y al terminar se guarda en ella el resultado.
+	 *
+	 * @return el valor de la posición desde el punto de vista de pColor
+	 */
+	private int negamax(boolean pColor, int pProfundidad, int pAlfa, int pBeta) {
+		nodos++;
+		if (nodos > maxNodos || ((nodos & 1023) == 0 && parar.getAsBoolean())) {
+			abandonada = true;
+		}
+		if (abandonada) {
+			return 0;
+		}
+		if (bits.lleno()) {
+			return 0;
+		}
+		if (finales != null && bits.getFilas() * bits.getColumnas() - bits.getNumFichas() <= finales.getMaxVacias()) {
+			int resultado = finales.consultar(bits);
+			if (resultado != -1) {
+				aciertosFinales++;
+				return valorFinal(resultado);
+			}
+		}
+		if (pProfundidad <= 0) {
+			return ruido == 0 ? bits.evaluar(pColor) : bits.evaluar(pColor) + ruido(pColor);
+		}
+		//LA CLAVE NO DISTINGUE DE QUIÉN ES EL TURNO, PERO EN UNA POSICIÓN SÓLO PUEDE TOCARLE A UNO. CON RUIDO SE MEZCLA
+		//CON LA SEMILLA PARA NO USAR LOS VALORES DE BÚSQUEDAS ANTERIORES, QUE TENÍAN OTRO
+		long propia = bits.getClave();
+		long espejo = bits.getClaveEspejo();
+		boolean reflejada = espejo < propia;
+		long clave = (reflejada ? espejo : propia) ^ semillaRuido;
+		int alfaInicial = pAlfa;
+		int primera = -1;
+		long dato = tabla.consultar(clave);
+		if (dato != 0) {
+			primera = reflejar(TablaTransposicion.getColumna(dato), reflejada);
+			if (TablaTransposicion.getProfundidad(dato) >= pProfundidad) {
+				int valor = TablaTransposicion.getValor(dato);
+				int tipo = TablaTransposicion.getTipo(dato);
+				if (tipo == TablaTransposicion.EXACTO
+						|| (tipo == TablaTransposicion.INFERIOR && valor >= pBeta)
+						|| (tipo == TablaTransposicion.SUPERIOR && valor <= pAlfa)) {
+					return valor;
+				}
+			}
+		}
+		int mejor = -OrdenadorE.VICTORIA - 1;
+		int columna = -1;
+		//PRIMERO LA COLUMNA DE LA TABLA Y LUEGO LAS DEMÁS EN EL ORDEN DE OrdenJugadas
+		int altura = bits.getNumFichas() - fichasRaiz;
+		int n = orden.ordenar(bits, pColor, altura, primera);
+		int[] jugadas = orden.getJugadas(altura);
+		for (int i = 0; i < n && pAlfa < pBeta && !abandonada; i++) {
+			int col = jugadas[i];
+			int valor = probar(col, pColor, pProfundidad, -pBeta, -pAlfa);
+			if (valor > mejor) {
+				mejor = valor;
+				columna = col;
+				if (valor > pAlfa) {
+					pAlfa = valor;
+				}
+			}
+			if (valor >= pBeta && !abandonada) {
+				orden.corte(pColor, altura, col, bits.getAltura(col), pProfundidad, i);
+			}
+		}
+		if (abandonada) {
+			return 0;
+		}
+		int tipo;
+		if (mejor <= alfaInicial) {
+			tipo = TablaTransposicion.SUPERIOR;
+		} else if (mejor >= pBeta) {
+			tipo = TablaTransposicion.INFERIOR;
+		} else {
+			tipo = TablaTransposicion.EXACTO;
+		}
+		tabla.guardar(clave, mejor, pProfundidad, tipo, reflejar(columna, reflejada));
+		return mejor;
+	}
+
+	/**
+	 * @return un valor entre -ruido y ruido que depende sólo de la posición y de la semilla, con el signo del punto de
+	 * vista de pColor para que lo que suma a un jugador se lo reste al otro
+	 */
+	private int ruido(boolean pColor) {
+		long mezcla = (claveCanonica() ^ semillaRuido) * 0x9E3779B97F4A7C15L;
+		mezcla ^= mezcla >>> 31;
+		int valor = (int) Math.floorMod(mezcla, 2L * ruido + 1) - ruido;
+		return pColor ? valor : -valor;
+	}
+
+	/**
+	 * Una posición y su simétrica valen lo mismo, así que en la tabla de transposición se guardan una sola vez, con la
+	 * menor de sus dos claves. La columna se guarda como sería en la posición de esa clave.
+	 *
+	 * @return la menor entre la clave de la posición y la de su simétrica
+	 */
+	private long claveCanonica() {
+		return Math.min(bits.getClave(), bits.getClaveEspejo());
+	}
+
+	/**
+	 * @return la columna simétrica si pReflejar, la misma si no. -1 se queda como está
+	 */
+	private int reflejar(int pColumna, boolean pReflejar) {
+		return pReflejar && pColumna >= 0 ? bits.getColumnas() - 1 - pColumna : pColumna;
+	}
+
+	/**
+	 * Pasa un resultado de la tabla de finales a la escala de la búsqueda: una victoria vale lo mismo que si se
+	 * hubiera encontrado buscando, VICTORIA menos las fichas que habrá en el tablero al ganar.
+	 */
+	private int valorFinal(int pResultado) {
+		int fichasAlAcabar = bits.getNumFichas() + TablaFinales.getDistancia(pResultado);
+		switch (TablaFinales.getResultado(pResultado)) {
+			case TablaFinales.GANA:
+				return OrdenadorE.VICTORIA - fichasAlAcabar;
+			case TablaFinales.PIERDE:
+				return -(OrdenadorE.VICTORIA - fichasAlAcabar);
+			default:
+				return 0;
+		}
+	}
+
+	long getNodos() {
+		return nodos;
+	}
+
+	long getAciertosFinales() {
+		return aciertosFinales;
+	}
+
+	/**
+	 * @return la mejor columna de la última iteración terminada
+	 */
+	int getMejorColumna() {
+		return mejorColumna;
+	}
+
+	int getProfundidadAlcanzada() {
+		return profundidadAlcanzada;
+	}
+
+	/**
+	 * @return el valor de la mejor columna en la última iteración terminada
+	 */
+	int getValorAlcanzado() {
+		return valorAlcanzado;
+	}
+}
@@ -1,12 +1,28 @@
 package packModelo;
 
+import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 
+import java.util.Observer;
+
+/**
+ * Una partida con su propio tablero y su propio modo de juego, de modo que se pueden jugar varias partidas a la vez.
+ */
 public class Juego {
 
+	private final Tablero tablero;
 	private Modo modo;
+	/**
+	 * Se crea la primera vez que se resuelve una posición y se reutiliza después, con su tabla de transposición.
+	 */
+	private Solucionador solucionador;
 
 	public Juego() {
+		this(new Tablero());
+	}
+
+	public Juego(Tablero pTablero) {
+		this.tablero = pTablero;
 		setModoJuego(new OvO());
 	}
 
@@ -28,21 +44,55 @@ public class Juego {
 	 * @author Naiara Maneiro
 	 */
 	public void setModoJuego(Modo pModo) {
+		//EL MODO ANTERIOR PUEDE ESTAR PENSANDO MIENTRAS ESPERABA UNA JUGADA QUE YA NO VA A LLEGAR, Y SUS HILOS YA NO
+		//LOS VA A USAR NADIE
+		if (modo != null && modo != pModo) {
+			modo.cancelar();
+			modo.cerrar();
+		}
+		pModo.setTablero(tablero);
 		this.modo = pModo;
 	}
 
 
 	/**
 	 * Pre: recibe como parámetro la columna introducida por el jugador
-	 * Post:devuelve un json que contiene la información de lo sucedido durante la partida
+	 * Post: devuelve el resultado de lo sucedido durante la partida
 	 *
 	 * @param pColumna la columna en la que se va a introducir la ficha en la jugada
-	 * @return Json de la forma {x:int, y:int, lleno: boolean, posicionesGanadoras {x1:,y1:,x2:,y2:...}} que contiene la
-	 * información de lo sucedido durante la partida y nulo en caso de que no se haya podido introducir la ficha
+	 * @return el resultado de la jugada, que el modo reutiliza en cada turno, o nulo en caso de que no se haya podido
+	 * introducir la ficha
 	 * @author Nuria Lebeña
 	 */
-	public JSONObject jugarPartida(int pColumna) {
-		return modo.jugar(pColumna);
+	public ResultadoJugada jugarPartida(int pColumna) {
+		prepararJugada();
+		return jugarPartidaPreparada(pColumna);
+	}
+
+	/**
+	 * Quita al modo la cancelación de la jugada anterior. Quien pide una jugada para hacerla más tarde, por ejemplo en
+	 * otro hilo, lo llama al pedirla y después usa jugarPartidaPreparada, para que si se cancela mientras espera su
+	 * turno no se pierda la cancelación.
+	 */
+	public void prepararJugada() {
+		modo.reanudar();
+	}
+
+	/**
+	 * Igual que jugarPartida pero sin quitar la cancelación, que se ha quitado antes con prepararJugada.
+	 *
+	 * @param pColumna la columna en la que se va a introducir la ficha en la jugada
+	 * @return el resultado de la jugada, o nulo en caso de que no se haya podido introducir la ficha
+	 */
+	public ResultadoJugada jugarPartidaPreparada(int pColumna) {
+		return modo.realizarJugada(pColumna);
+	}
+
+	/**
+	 * Pide al modo que termine cuanto antes la jugada que esté calculando. Se puede llamar desde cualquier hilo.
+	 */
+	public void cancelarJugada() {
+		modo.cancelar();
 	}
 
 	/**
@@ -51,6 +101,44 @@ public class Juego {
 	 * @author Nuria Lebeña
 	 */
 	public void inicializarTablero() {
-		Tablero.getmTablero().inicializarTablero();
+		modo.cancelar();
+		tablero.inicializarTablero();
+	}
+
+	/**
+	 * Resuelve la posición actual de la partida con juego perfecto, sin modificar el tablero.
+	 *
+	 * @param pMilisegundos tiempo máximo, 0 para no poner límite
+	 * @return JSON de la forma {resuelto:boolean, columna:int, resultado:int, distancia:int, nodos:long, tiempo:long,
+	 * memoria:long} (ver Solucionador.toJSON)
+	 */
+	public JSONObject resolver(long pMilisegundos) {
+		if (solucionador == null) {
+			solucionador = new Solucionador();
+		}
+		solucionador.setTiempoMaximo(pMilisegundos);
+		solucionador.resolver(tablero);
+		return solucionador.toJSON();
+	}
+
+	public Tablero getTablero() {
+		return tablero;
+	}
+
+	/**
+	 * Añade un observador que será notificado cada vez que se introduzca una ficha en el tablero de la partida.
+	 *
+	 * @param pObservador el observador del tablero
+	 */
+	public void observarTablero(Observer pObservador) {
+		tablero.addObserver(pObservador);
+	}
+
+	/**
+	 * @param pLinea línea ganadora devuelta por el tablero
+	 * @return JSON de la forma [{x:fila, y:columna}, ...]
+	 */
+	public JSONArray getCoordenadas(long pLinea) {
+		return tablero.getCoordenadas(pLinea);
 	}
 }
\ No newline at end of file
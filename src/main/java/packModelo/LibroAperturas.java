@@ -0,0 +1,289 @@
+package packModelo;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Libro de aperturas: la mejor columna de las posiciones del principio de la partida, calculada de antemano. Los modos
+ * que buscan su jugada lo consultan antes de buscar, así que las primeras jugadas no cuestan nada.
+ * <p>
+ * El fichero no se lee a memoria: se proyecta con un MappedByteBuffer y cada consulta es una búsqueda binaria sobre
+ * él, de modo que abrirlo es inmediato aunque sea grande y varios modos e hilos pueden compartirlo. Todo va en big
+ * endian:
+ * <ul>
+ * <li>cabecera de 24 bytes: MAGICO, VERSION, filas, columnas, enRaya y número de entradas, cada uno un int</li>
+ * <li>entradas de 16 bytes ordenadas por clave: clave (long), valor (int), columna (byte), profundidad (byte) y dos
+ * bytes a 0</li>
+ * </ul>
+ * La clave es la clave Zobrist de la posición, que no cambia entre ejecuciones (ver TableroBits). Una posición y su
+ * simétrica tienen la misma jugada reflejada, así que basta con guardar la de menor clave, con su columna; al consultar
+ * la otra se busca esa y se refleja la columna. Un libro que tenga las dos también sirve.
+ */
+public class LibroAperturas {
+
+	/**
+	 * "C4LB" en ASCII.
+	 */
+	static final int MAGICO = 0x43344C42;
+	static final int VERSION = 1;
+	static final int BYTES_CABECERA = 24;
+	static final int BYTES_ENTRADA = 16;
+	/**
+	 * Fichero del libro que usa la aplicación si no se indica otro con la propiedad del sistema conecta4.libro.
+	 */
+	public static final String FICHERO_DEFECTO = "libro.bin";
+
+	private static LibroAperturas mLibro;
+	private static boolean mLibroBuscado;
+
+	private final MappedByteBuffer buffer;
+	private final int filas;
+	private final int columnas;
+	private final int enRaya;
+	private final int entradas;
+
+	private LibroAperturas(MappedByteBuffer pBuffer) throws IOException {
+		this.buffer = pBuffer;
+		if (pBuffer.capacity() < BYTES_CABECERA || pBuffer.getInt(0) != MAGICO) {
+			throw new IOException("El fichero no es un libro de aperturas");
+		}
+		if (pBuffer.getInt(4) != VERSION) {
+			throw new IOException("Versión de libro no soportada: " + pBuffer.getInt(4));
+		}
+		this.filas = pBuffer.getInt(8);
+		this.columnas = pBuffer.getInt(12);
+		this.enRaya = pBuffer.getInt(16);
+		this.entradas = pBuffer.getInt(20);
+		if (entradas < 0 || (long) entradas * BYTES_ENTRADA + BYTES_CABECERA != pBuffer.capacity()) {
+			throw new IOException("El libro está incompleto: " + entradas + " entradas en " + pBuffer.capacity()
+					+ " bytes");
+		}
+	}
+
+	/**
+	 * Proyecta el fichero en memoria. El canal se cierra enseguida; la proyección sigue siendo válida hasta que el
+	 * libro deja de usarse.
+	 *
+	 * @param pFichero el fichero del libro
+	 * @return el libro
+	 * @throws IOException si no se puede leer o no es un libro válido
+	 */
+	public static LibroAperturas abrir(File pFichero) throws IOException {
+		try (RandomAccessFile fichero = new RandomAccessFile(pFichero, "r");
+			 FileChannel canal = fichero.getChannel()) {
+			if (canal.size() > Integer.MAX_VALUE) {
+				throw new IOException("El libro es demasiado grande: " + canal.size() + " bytes");
+			}
+			return new LibroAperturas(canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size()));
+		}
+	}
+
+	/**
+	 * Abre una sola vez el libro de la aplicación, que comparten todos los modos.
+	 *
+	 * @return el libro, o null si no existe el fichero o no se puede abrir
+	 */
+	public static synchronized LibroAperturas getmLibro() {
+		if (!mLibroBuscado) {
+			mLibroBuscado = true;
+			File fichero = new File(System.getProperty("conecta4.libro", FICHERO_DEFECTO));
+			if (fichero.isFile()) {
+				try {
+					mLibro = abrir(fichero);
+				} catch (IOException e) {
+					System.out.println(e);
+					System.out.println("No se ha podido abrir el libro de aperturas " + fichero);
+				}
+			}
+		}
+		return mLibro;
+	}
+
+	/**
+	 * Escribe un libro con las entradas dadas, que se ordenan por clave.
+	 *
+	 * @param pFichero  el fichero en el que se escribe, que se sobrescribe si existe
+	 * @param pFilas    filas del tablero de las posiciones
+	 * @param pColumnas columnas del tablero de las posiciones
+	 * @param pEnRaya   fichas seguidas que hacen falta para ganar
+	 * @param pEntradas las posiciones, sin claves repetidas
+	 * @throws IOException si no se puede escribir
+	 */
+	public static void escribir(File pFichero, int pFilas, int pColumnas, int pEnRaya, List<Entrada> pEntradas)
+			throws IOException {
+		List<Entrada> ordenadas = new ArrayList<>(pEntradas);
+		ordenadas.sort(Comparator.comparingLong(Entrada::getClave));
+		for (int i = 1; i < ordenadas.size(); i++) {
+			if (ordenadas.get(i).getClave() == ordenadas.get(i - 1).getClave()) {
+				throw new IllegalArgumentException("Posición repetida en el libro: " + ordenadas.get(i).getClave());
+			}
+		}
+		try (DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(pFichero)))) {
+			salida.writeInt(MAGICO);
+			salida.writeInt(VERSION);
+			salida.writeInt(pFilas);
+			salida.writeInt(pColumnas);
+			salida.writeInt(pEnRaya);
+			salida.writeInt(ordenadas.size());
+			for (Entrada entrada : ordenadas) {
+				salida.writeLong(entrada.getClave());
+				salida.writeInt(entrada.getValor());
+				salida.writeByte(entrada.getColumna());
+				salida.writeByte(entrada.getProfundidad());
+				salida.writeShort(0);
+			}
+		}
+	}
+
+	/**
+	 * Busca la posición con una búsqueda binaria. Sólo usa lecturas absolutas del buffer, así que se puede llamar
+	 * desde varios hilos a la vez.
+	 *
+	 * @param pClave la clave de la posición
+	 * @return el número de la entrada, -1 si la posición no está en el libro
+	 */
+	int buscar(long pClave) {
+		int inicio = 0;
+		int fin = entradas - 1;
+		while (inicio <= fin) {
+			int medio = (inicio + fin) >>> 1;
+			long clave = buffer.getLong(BYTES_CABECERA + medio * BYTES_ENTRADA);
+			if (clave < pClave) {
+				inicio = medio + 1;
+			} else if (clave > pClave) {
+				fin = medio - 1;
+			} else {
+				return medio;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Pre: la entrada existe
+	 */
+	int getValor(int pEntrada) {
+		return buffer.getInt(BYTES_CABECERA + pEntrada * BYTES_ENTRADA + 8);
+	}
+
+	/**
+	 * Pre: la entrada existe
+	 */
+	int getColumna(int pEntrada) {
+		return buffer.get(BYTES_CABECERA + pEntrada * BYTES_ENTRADA + 12);
+	}
+
+	/**
+	 * Pre: la entrada existe
+	 */
+	int getProfundidad(int pEntrada) {
+		return buffer.get(BYTES_CABECERA + pEntrada * BYTES_ENTRADA + 13) & 0xFF;
+	}
+
+	/**
+	 * @return true si el libro es de un tablero con las dimensiones del núcleo
+	 */
+	boolean sirve(TableroBits pBits) {
+		return pBits.getFilas() == filas && pBits.getColumnas() == columnas && pBits.getEnRaya() == enRaya;
+	}
+
+	/**
+	 * Consulta la jugada del libro para el jugador al que le toca en el tablero.
+	 *
+	 * @param pTablero la posición
+	 * @return la columna del libro, -1 si la posición no está
+	 */
+	public int consultar(Tablero pTablero) {
+		return consultar(pTablero.getBits());
+	}
+
+	/**
+	 * Busca la posición por la menor de su clave y la de su simétrica. Si la entrada es la de la simétrica se refleja
+	 * la columna.
+	 *
+	 * @param pBits el núcleo con la posición
+	 * @return la columna del libro para la posición, -1 si el libro es de otro tablero o la posición no está
+	 */
+	int consultar(TableroBits pBits) {
+		if (!sirve(pBits)) {
+			return -1;
+		}
+		long clave = pBits.getClave();
+		long espejo = pBits.getClaveEspejo();
+		int i = buscar(Math.min(clave, espejo));
+		if (i < 0) {
+			return -1;
+		}
+		int columna = getColumna(i);
+		return espejo < clave ? columnas - 1 - columna : columna;
+	}
+
+	public int getEntradas() {
+		return entradas;
+	}
+
+	public int getFilas() {
+		return filas;
+	}
+
+	public int getColumnas() {
+		return columnas;
+	}
+
+	public int getEnRaya() {
+		return enRaya;
+	}
+
+	/**
+	 * Una posición del libro tal y como se escribe en el fichero.
+	 */
+	public static class Entrada {
+
+		private final long clave;
+		private final int columna;
+		private final int valor;
+		private final int profundidad;
+
+		/**
+		 * @param pClave       la clave Zobrist de la posición
+		 * @param pColumna     la mejor columna
+		 * @param pValor       el valor de la posición para el jugador al que le toca
+		 * @param pProfundidad la profundidad con la que se calculó, 0 a 255
+		 */
+		public Entrada(long pClave, int pColumna, int pValor, int pProfundidad) {
+			if (pColumna < 0 || pColumna > Byte.MAX_VALUE || pProfundidad < 0 || pProfundidad > 255) {
+				throw new IllegalArgumentException("Entrada de libro no válida: columna " + pColumna
+						+ ", profundidad " + pProfundidad);
+			}
+			this.clave = pClave;
+			this.columna = pColumna;
+			this.valor = pValor;
+			this.profundidad = pProfundidad;
+		}
+
+		public long getClave() {
+			return clave;
+		}
+
+		public int getColumna() {
+			return columna;
+		}
+
+		public int getValor() {
+			return valor;
+		}
+
+		public int getProfundidad() {
+			return profundidad;
+		}
+	}
+}
@@ -5,18 +5,140 @@ import org.json.simple.JSONObject;
 public abstract class Modo {
 
 	private final String nombre;
+	/**
+	 * Resultado que se reutiliza en cada turno de la partida.
+	 */
+	private final ResultadoJugada resultado = new ResultadoJugada();
+	/**
+	 * Tablero sobre el que juega el modo. Al asignar el modo a un Juego se cambia por el tablero de ese juego.
+	 */
+	private Tablero tablero;
+	/**
+	 * Tiempo en milisegundos que puede pensar el ordenador en cada jugada, 0 si no hay límite. Sólo lo usan los modos
+	 * que buscan su jugada.
+	 */
+	private long tiempoMaximo;
+	/**
+	 * Se pone a true desde otro hilo para que la búsqueda en curso termine cuanto antes.
+	 */
+	private volatile boolean cancelado;
+	/**
+	 * Libro de aperturas que consultan los modos que buscan su jugada antes de buscar, null si no hay.
+	 */
+	private LibroAperturas libro;
 
 	public Modo(String pNombre) {
 		this.nombre = pNombre;
+		this.tablero = Tablero.getmTablero();
 	}
 
 	/**
-	 * @param pColumna
-	 * @return
+	 * Simula un turno a partir de la columna introducida por el jugador.
+	 *
+	 * @param pColumna la columna en la que se va a introducir la ficha en la jugada
+	 * @return el resultado del turno, que se reutiliza en la siguiente jugada, o null si la columna está llena
+	 */
+	public abstract ResultadoJugada realizarJugada(int pColumna);
+
+	/**
+	 * Igual que realizarJugada pero devolviendo el resultado como JSON.
+	 *
+	 * @param pColumna la columna en la que se va a introducir la ficha en la jugada
+	 * @return Json de la forma {fila:int, columna:int, lleno:boolean, haGanadoA:boolean, haGanadoB:boolean,
+	 * lineaGanadora:long} o null si la columna está llena
 	 */
-	public abstract JSONObject jugar(int pColumna);
+	public JSONObject jugar(int pColumna) {
+		ResultadoJugada res = realizarJugada(pColumna);
+		if (res == null) {
+			return null;
+		}
+		return res.toJSON();
+	}
 
 	public String getNombre() {
 		return this.nombre;
 	}
-}
\ No newline at end of file
+
+	public long getTiempoMaximo() {
+		return tiempoMaximo;
+	}
+
+	/**
+	 * @param pMilisegundos tiempo que puede pensar el ordenador en cada jugada, 0 para no poner límite
+	 */
+	public void setTiempoMaximo(long pMilisegundos) {
+		if (pMilisegundos < 0) {
+			throw new IllegalArgumentException("El tiempo máximo no puede ser negativo: " + pMilisegundos);
+		}
+		this.tiempoMaximo = pMilisegundos;
+	}
+
+	/**
+	 * Pide a la búsqueda en curso que termine y juegue la mejor jugada que tenga. Se puede llamar desde cualquier
+	 * hilo. La cancelación sigue hasta que se pida otra jugada con reanudar, así que también vale para la jugada que
+	 * se ha pedido y todavía no ha empezado.
+	 */
+	public void cancelar() {
+		cancelado = true;
+	}
+
+	protected boolean isCancelado() {
+		return cancelado;
+	}
+
+	/**
+	 * Quita la cancelación. Lo llama quien pide la jugada al pedirla, no la búsqueda al empezar: si no, una
+	 * cancelación que llegara mientras la jugada espera su turno se perdería y la búsqueda no pararía.
+	 */
+	public void reanudar() {
+		cancelado = false;
+	}
+
+	/**
+	 * Libera los hilos que haya creado el modo. Se llama cuando el modo deja de usarse y no está buscando ninguna
+	 * jugada; si se vuelve a usar, busca con un solo hilo. Los modos que no crean hilos no hacen nada.
+	 */
+	public void cerrar() {
+	}
+
+	public LibroAperturas getLibro() {
+		return libro;
+	}
+
+	/**
+	 * @param pLibro libro de aperturas que se consulta antes de buscar cada jugada, null para no usar ninguno
+	 */
+	public void setLibro(LibroAperturas pLibro) {
+		this.libro = pLibro;
+	}
+
+	/**
+	 * Busca la posición en el libro de aperturas.
+	 *
+	 * @param pBits el núcleo con la posición
+	 * @return la columna del libro, o -1 si no hay libro, la posición no está o la columna está llena
+	 */
+	int consultarLibro(TableroBits pBits) {
+		if (libro == null) {
+			return -1;
+		}
+		int columna = libro.consultar(pBits);
+		return columna >= 0 && columna < pBits.getColumnas() && !pBits.columnaLlena(columna) ? columna : -1;
+	}
+
+	protected Tablero getTablero() {
+		return tablero;
+	}
+
+	void setTablero(Tablero pTablero) {
+		this.tablero = pTablero;
+	}
+
+	/**
+	 * @return el resultado de la jugada ya reiniciado para empezar un turno nuevo
+	 */
+	protected ResultadoJugada nuevoResultado() {
+		resultado.reiniciar();
+		return resultado;
+	}
+}
@@ -0,0 +1,207 @@
+package packModelo;
+
+/**
+ * Decide en qué orden prueba las columnas una búsqueda alfa-beta. Cuanto antes se prueba la mejor jugada antes se
+ * poda, y con 9 columnas se nota mucho. En cada nodo van primero:
+ * <ol>
+ * <li>las columnas que ganan ya o, si no hay, las que tapan una línea del rival, que salen de columnasGanadoras</li>
+ * <li>la columna que indique la búsqueda, normalmente la de la tabla de transposición</li>
+ * <li>las dos jugadas asesinas de esa altura del árbol, las últimas que han provocado un corte en algún nodo hermano</li>
+ * <li>las demás, de más a menos puntos en la tabla de historia y, si empatan, del centro hacia fuera</li>
+ * </ol>
+ * La tabla de historia se indexa por jugador, columna y fila: cada corte suma a la casilla en la que se jugó 2
+ * elevado a la profundidad que quedaba, así que pesan mucho más los cortes cerca de la raíz.
+ * <p>
+ * Además cuenta los nodos que acaban en corte y cuántos de ellos con la primera jugada probada, que es lo que dice si
+ * el orden es bueno. Cada hilo que busca tiene que tener el suyo.
+ */
+class OrdenJugadas {
+
+	/**
+	 * Cuando alguna casilla de la historia pasa de este valor se dividen todas entre dos, para que no se desborden y
+	 * para que lo reciente pese más que lo antiguo.
+	 */
+	private static final int HISTORIA_MAXIMA = 1 << 24;
+
+	private final int filas;
+	private final int[] centro;
+	/**
+	 * Para cada altura del árbol, las dos últimas columnas que han provocado un corte, -1 si no hay.
+	 */
+	private final int[][] asesinas;
+	/**
+	 * historia[0] es la del jugador rojo y historia[1] la del azul, y cada una historia[jugador][columna][fila].
+	 */
+	private final int[][][] historia;
+	/**
+	 * Columnas ordenadas de cada altura del árbol y sus puntos de historia, para no crear arrays en cada nodo.
+	 */
+	private final int[][] jugadas;
+	private final int[][] puntos;
+
+	private long cortes;
+	private long cortesPrimera;
+
+	/**
+	 * @param pFilas    filas del tablero
+	 * @param pColumnas columnas del tablero
+	 */
+	OrdenJugadas(int pFilas, int pColumnas) {
+		this.filas = pFilas;
+		this.centro = new int[pColumnas];
+		for (int i = 0; i < pColumnas; i++) {
+			//CENTRO, DERECHA DEL CENTRO, IZQUIERDA DEL CENTRO...
+			int salto = (i + 1) / 2;
+			centro[i] = (pColumnas - 1) / 2 + (i % 2 == 1 ? salto : -salto);
+		}
+		int alturas = pFilas * pColumnas + 1;
+		this.asesinas = new int[alturas][2];
+		this.historia = new int[2][pColumnas][pFilas];
+		this.jugadas = new int[alturas][pColumnas];
+		this.puntos = new int[alturas][pColumnas];
+		limpiarAsesinas();
+	}
+
+	/**
+	 * Se llama al empezar cada búsqueda: pone a cero los contadores, olvida las jugadas asesinas, que dependen de la
+	 * raíz, y reduce a la mitad la historia, que sigue sirviendo de una jugada a la siguiente.
+	 */
+	void nuevaBusqueda() {
+		cortes = 0;
+		cortesPrimera = 0;
+		limpiarAsesinas();
+		reducirHistoria();
+	}
+
+	/**
+	 * Ordena las columnas libres de un nodo.
+	 *
+	 * @param pBits    el núcleo con la posición del nodo
+	 * @param pColor   el jugador al que le toca
+	 * @param pAltura  la altura del nodo en el árbol, 0 en la raíz
+	 * @param pPrimera la columna que se quiere probar antes que ninguna, -1 si no hay
+	 * @return cuántas columnas hay en getJugadas(pAltura)
+	 */
+	int ordenar(TableroBits pBits, boolean pColor, int pAltura, int pPrimera) {
+		int[] cols = jugadas[pAltura];
+		int[] pts = puntos[pAltura];
+		int n = 0;
+		//LO QUE GANA YA Y, SI NO HAY, LO QUE TAPA UNA LÍNEA DEL RIVAL VA ANTES QUE NADA
+		long urgentes = pBits.columnasGanadoras(pColor);
+		if (urgentes == 0) {
+			urgentes = pBits.columnasGanadoras(!pColor);
+		}
+		while (urgentes != 0) {
+			cols[n++] = Long.numberOfTrailingZeros(urgentes);
+			urgentes &= urgentes - 1;
+		}
+		if (pPrimera >= 0 && !pBits.columnaLlena(pPrimera) && !contiene(cols, n, pPrimera)) {
+			cols[n++] = pPrimera;
+		}
+		for (int asesina : asesinas[pAltura]) {
+			if (asesina >= 0 && !pBits.columnaLlena(asesina) && !contiene(cols, n, asesina)) {
+				cols[n++] = asesina;
+			}
+		}
+		int fijas = n;
+		int[][] hist = historia[pColor ? 0 : 1];
+		for (int col : centro) {
+			if (pBits.columnaLlena(col) || contiene(cols, fijas, col)) {
+				continue;
+			}
+			int p = hist[col][pBits.getAltura(col)];
+			//INSERCIÓN: LAS QUE EMPATAN QUEDAN EN EL ORDEN DEL CENTRO
+			int i = n++;
+			while (i > fijas && pts[i - 1] < p) {
+				cols[i] = cols[i - 1];
+				pts[i] = pts[i - 1];
+				i--;
+			}
+			cols[i] = col;
+			pts[i] = p;
+		}
+		return n;
+	}
+
+	/**
+	 * @return las columnas que ha dejado ordenar para esa altura
+	 */
+	int[] getJugadas(int pAltura) {
+		return jugadas[pAltura];
+	}
+
+	/**
+	 * Apunta que una columna ha provocado un corte.
+	 *
+	 * @param pColor       el jugador que ha jugado en la columna
+	 * @param pAltura      la altura del nodo en el árbol
+	 * @param pColumna     la columna
+	 * @param pFila        la fila en la que cae la ficha
+	 * @param pProfundidad la profundidad que le quedaba al nodo
+	 * @param pIndice      la posición de la columna en el orden en que se han probado, 0 si era la primera
+	 */
+	void corte(boolean pColor, int pAltura, int pColumna, int pFila, int pProfundidad, int pIndice) {
+		cortes++;
+		if (pIndice == 0) {
+			cortesPrimera++;
+		}
+		int[] asesinasAltura = asesinas[pAltura];
+		if (asesinasAltura[0] != pColumna) {
+			asesinasAltura[1] = asesinasAltura[0];
+			asesinasAltura[0] = pColumna;
+		}
+		int[] hist = historia[pColor ? 0 : 1][pColumna];
+		//LA PROFUNDIDAD SE LIMITA PARA QUE UN SOLO CORTE NO SE ACERQUE A HISTORIA_MAXIMA
+		hist[pFila] += 1 << Math.min(pProfundidad, 16);
+		if (hist[pFila] > HISTORIA_MAXIMA) {
+			reducirHistoria();
+		}
+	}
+
+	/**
+	 * @return las columnas del centro hacia fuera
+	 */
+	int[] getCentro() {
+		return centro;
+	}
+
+	/**
+	 * @return los nodos que han acabado en corte desde nuevaBusqueda
+	 */
+	long getCortes() {
+		return cortes;
+	}
+
+	/**
+	 * @return los nodos que han acabado en corte con la primera columna probada desde nuevaBusqueda
+	 */
+	long getCortesPrimera() {
+		return cortesPrimera;
+	}
+
+	private void limpiarAsesinas() {
+		for (int[] asesinasAltura : asesinas) {
+			asesinasAltura[0] = -1;
+			asesinasAltura[1] = -1;
+		}
+	}
+
+	private void reducirHistoria() {
+		for (int[][] jugador : historia) {
+			for (int[] columna : jugador) {
+				for (int f = 0; f < filas; f++) {
+					columna[f] >>= 1;
+				}
+			}
+		}
+	}
+
+	private static boolean contiene(int[] pColumnas, int pN, int pColumna) {
+		for (int i = 0; i < pN; i++) {
+			if (pColumnas[i] == pColumna) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
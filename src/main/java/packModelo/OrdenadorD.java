@@ -1,8 +1,6 @@
 package packModelo;
 
 import javafx.util.Pair;
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
 
 import java.util.Random;
 
@@ -12,62 +10,78 @@ public class OrdenadorD extends Modo {
 		super("Ordenador modo Dificil");
 	}
 
+	/**
+	 * Mira antes que nada si el ordenador gana con su siguiente ficha o si tiene que tapar una línea del jugador. Las
+	 * dos cosas salen de las máscaras de columnas del núcleo de bits, sin recorrer el tablero.
+	 *
+	 * @param pTablero el tablero, en el que le toca al ordenador
+	 * @return la columna que gana o, si no hay, la que tapa una línea del jugador. -1 si no hay ninguna
+	 */
+	static int jugadaTactica(Tablero pTablero) {
+		TableroBits bits = pTablero.getBits();
+		long ganadoras = bits.columnasGanadoras(false);
+		if (ganadoras != 0) {
+			return Long.numberOfTrailingZeros(ganadoras);
+		}
+		long tapar = bits.columnasGanadoras(true);
+		if (tapar != 0) {
+			//SI EL JUGADOR TIENE DOS, TAPAR UNA NO SALVA LA PARTIDA PERO LO RETRASA
+			return Long.numberOfTrailingZeros(tapar);
+		}
+		return -1;
+	}
+
 	/**
 	 * Simula un turno a partir de la posición introducida por el jugador.
 	 *
 	 * @param pColumna la columna en la que se va a introducir la ficha en la jugada
-	 * @return JSON {haGanadoA:boolean, haGanadoB:boolean,
-	 * posicionesGanadoras {x1,y1;x2,y2:;...},lleno: boolean} / null
+	 * @return el resultado de la jugada / null
 	 * @author Alvaro Dueñas
 	 */
-	public JSONObject jugar(int pColumna) {
-		Tablero tablero = Tablero.getmTablero();
-		JSONObject json1 = tablero.introducirFicha(pColumna, true);
-		if (json1 == null) {
+	public ResultadoJugada realizarJugada(int pColumna) {
+		Tablero tablero = getTablero();
+		int fila1 = tablero.colocarFicha(pColumna, true);
+		if (fila1 == -1) {
 			return null;
 		}
-		JSONObject res = new JSONObject();
-		res.put("lleno", tablero.tableroLleno());
-		res.put("posicionesGanadoras", null);
-		res.put("haGanadoA", false);
-		res.put("haGanadoB", false);
-		JSONArray json2 = tablero.haGanado(Integer.parseInt(String.valueOf(json1.get("fila"))),
-				Integer.parseInt(String.valueOf(json1.get("columna"))), true);
-		if (json2 == null) {
+		ResultadoJugada res = nuevoResultado();
+		res.setJugada(fila1, pColumna);
+		res.setLleno(tablero.tableroLleno());
+		long linea1 = tablero.getLineaGanadora(fila1, pColumna, true);
+		if (linea1 == 0) {
 			if (!tablero.tableroLleno()) {
-				JSONObject posIn2;
-				Pair<Integer, Integer> optB = tablero.getOptimo(false);
-				if (optB.getValue() == 3) {
-					posIn2 = tablero.introducirFicha(optB.getKey(), false);
-				} else {
+				int col2 = jugadaTactica(tablero);
+				if (col2 == -1) {
+					Pair<Integer, Integer> optB = tablero.getOptimo(false);
 					Pair<Integer, Integer> optA = tablero.getOptimo(true);
 					if (optA.getValue() > optB.getValue()) {
-						posIn2 = tablero.introducirFicha(optA.getKey(), false);
+						col2 = optA.getKey();
 					} else if (optB.getValue() > optA.getValue()) {
-						posIn2 = tablero.introducirFicha(optB.getKey(), false);
+						col2 = optB.getKey();
 					} else {
 						if ((new Random()).nextBoolean()) {
-							posIn2 = tablero.introducirFicha(optA.getKey(), false);
+							col2 = optA.getKey();
 						} else {
-							posIn2 = tablero.introducirFicha(optB.getKey(), false);
+							col2 = optB.getKey();
 						}
 					}
 				}
-				JSONArray json3 = tablero.haGanado(Integer.parseInt(String.valueOf(posIn2.get("fila"))),
-						Integer.parseInt(String.valueOf(posIn2.get("columna"))), false);
-				if (json3 == null) {
-					res.replace("lleno", tablero.tableroLleno());
+				int fila2 = tablero.colocarFicha(col2, false);
+				res.setJugada(fila2, col2);
+				long linea2 = tablero.getLineaGanadora(fila2, col2, false);
+				if (linea2 == 0) {
+					res.setLleno(tablero.tableroLleno());
 				} else {
-					res.put("haGanadoB", true);
-					res.replace("posicionesGanadoras", json3);
+					res.setHaGanadoB(true);
+					res.setLineaGanadora(linea2);
 				}
 			} else {
-				res.replace("lleno", true);
+				res.setLleno(true);
 			}
 		} else {
-			res.put("haGanadoA", true);
-			res.replace("posicionesGanadoras", json2);
+			res.setHaGanadoA(true);
+			res.setLineaGanadora(linea1);
 		}
 		return res;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,750 @@
+package packModelo;
+
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Modo experto: el ordenador elige su jugada con una búsqueda negamax con poda alfa-beta sobre el núcleo de bits del
+ * tablero (ver Busqueda). Las columnas se prueban primero la que diga la tabla de transposición, después las jugadas
+ * asesinas y las demás según la tabla de historia y del centro hacia fuera (ver OrdenJugadas), para podar cuanto antes.
+ * <p>
+ * La búsqueda se repite con profundidad 1, 2, 3... hasta la profundidad configurada. Si el modo tiene un tiempo
+ * máximo o se cancela, se abandona la iteración en curso y se juega la mejor columna de la última terminada. La
+ * búsqueda se puede repartir entre varios hilos de un ForkJoinPool.
+ * <p>
+ * Antes de buscar se consulta el libro de aperturas, y durante la búsqueda la tabla de finales, si se han indicado.
+ * <p>
+ * Si se activa, el modo sigue pensando en un hilo aparte mientras el humano elige su jugada: adivina cuál va a ser y
+ * busca la respuesta. Lo que encuentra se queda en la tabla de transposición, y si el humano juega lo previsto y ya se
+ * ha pensado lo suficiente se contesta sin volver a buscar.
+ * <p>
+ * La misma búsqueda sirve para los niveles de dificultad del 1 al NIVEL_MAXIMO (ver crearNivel): cada nivel tiene un
+ * máximo de nodos por jugada, que fija lo que cuesta, y un ruido en la valoración, que le hace equivocarse.
+ */
+public class OrdenadorE extends Modo {
+
+	/**
+	 * Profundidad con la que se juega si no se indica otra. Con ella se contesta por debajo del segundo en el tablero
+	 * por defecto.
+	 */
+	public static final int PROFUNDIDAD_DEFECTO = 10;
+	/**
+	 * Tiempo en milisegundos con el que juega el modo experto en la aplicación.
+	 */
+	public static final long TIEMPO_DEFECTO = 500;
+	/**
+	 * Profundidad más alta que se admite, la que cabe en las entradas de la tabla de transposición. Con ella y un
+	 * tiempo máximo el límite lo pone sólo el tiempo.
+	 */
+	public static final int PROFUNDIDAD_MAXIMA = 255;
+	/**
+	 * Tamaño en MB de la tabla de transposición si no se indica otro.
+	 */
+	public static final int TABLA_DEFECTO_MB = 16;
+	/**
+	 * Valor de ganar. A una victoria se le resta el número de fichas del tablero para preferir las más rápidas.
+	 */
+	static final int VICTORIA = 1000000;
+	/**
+	 * Profundidad con la que se adivina la jugada del humano antes de pensar la respuesta mientras espera.
+	 */
+	static final int PROFUNDIDAD_PREVISION = 8;
+	/**
+	 * Tiempo en milisegundos que se sigue pensando mientras se espera al humano. Si tarda más se deja de buscar para
+	 * no gastar CPU sin motivo.
+	 */
+	public static final long TIEMPO_ESPERA_MAXIMO = 60000;
+	/**
+	 * Nombre de los modos por niveles, al que se añade el número del nivel: "Ordenador nivel 5".
+	 */
+	public static final String PREFIJO_NIVEL = "Ordenador nivel ";
+	public static final int NIVEL_MAXIMO = 10;
+	/**
+	 * Nodos por jugada y ruido del nivel 1. Cada nivel multiplica los nodos por FACTOR_NIVEL y divide el ruido entre
+	 * dos, así que el nivel 10 visita unos 10^6 nodos por jugada, unas décimas de segundo de CPU.
+	 */
+	static final long NODOS_NIVEL_1 = 50;
+	static final int FACTOR_NIVEL = 3;
+	static final int RUIDO_NIVEL_1 = 1024;
+	/**
+	 * Tamaño en MB de la tabla de transposición de los modos por niveles, que buscan poco.
+	 */
+	static final int TABLA_NIVEL_MB = 4;
+
+	private int profundidad;
+	private final TablaTransposicion tabla;
+	/**
+	 * Tabla de finales que se consulta durante la búsqueda, null si no hay.
+	 */
+	private TablaFinales finales;
+	private long aciertosFinales;
+	/**
+	 * Datos de la última búsqueda: posiciones visitadas y tiempo empleado en nanosegundos.
+	 */
+	private long nodos;
+	private long tiempo;
+	private int profundidadAlcanzada;
+	private int valor;
+	private boolean jugadaDeLibro;
+	/**
+	 * Momento (System.nanoTime) en el que hay que dejar de buscar, y si la búsqueda principal ya ha terminado y los
+	 * demás hilos tienen que parar.
+	 */
+	private volatile long limite;
+	private volatile boolean parar = true;
+	/**
+	 * Hilos que buscan cada jugada y pool en el que se lanzan los que ayudan al principal.
+	 */
+	private int hilos = 1;
+	private ForkJoinPool pool;
+	/**
+	 * Si el pool lo ha creado el modo, que es entonces quien tiene que cerrarlo.
+	 */
+	private boolean poolPropio;
+	/**
+	 * Lo que ordena las columnas en cada hilo, el 0 para el principal y para el pensamiento en espera, que nunca
+	 * buscan a la vez. Depende de las dimensiones del tablero, así que se crea para el núcleo en el que se buscó la
+	 * última vez. Se guarda de una búsqueda a otra porque la historia sigue sirviendo.
+	 */
+	private TableroBits preparado;
+	private OrdenJugadas[] ordenes;
+	/**
+	 * Nodos de la última búsqueda que han acabado en corte, y cuántos de ellos con la primera columna probada.
+	 */
+	private long cortes;
+	private long cortesPrimera;
+	/**
+	 * Nodos que se pueden visitar en cada búsqueda, 0 si no hay límite, y hasta cuánto se mueve al azar la valoración
+	 * estática de cada posición.
+	 */
+	private long maxNodos;
+	private int ruido;
+	private final Random aleatorio = new Random();
+	/**
+	 * Pensamiento durante el turno del humano: si está activado, el hilo en el que se hace, la tarea en curso y la
+	 * señal para pararla.
+	 */
+	private boolean pensarEnEspera;
+	private ExecutorService espera;
+	private Future<?> tareaEspera;
+	private volatile boolean pararEspera;
+	/**
+	 * Lo que se ha pensado en la última espera: la jugada que se espera del humano, la clave de la posición que deja y
+	 * la búsqueda de la respuesta, que empezó en inicioRespuesta. La tarea los escribe y se leen después de pararla.
+	 */
+	private volatile int jugadaPrevista = -1;
+	private long clavePrevista;
+	private Busqueda respuestaPrevista;
+	private long inicioRespuesta;
+	private boolean jugadaPensada;
+
+	public OrdenadorE() {
+		this(PROFUNDIDAD_DEFECTO);
+	}
+
+	public OrdenadorE(int pProfundidad) {
+		this(pProfundidad, TABLA_DEFECTO_MB);
+	}
+
+	/**
+	 * @param pProfundidad número de jugadas que se miran por delante
+	 * @param pMegas       tamaño en MB de la tabla de transposición
+	 */
+	public OrdenadorE(int pProfundidad, int pMegas) {
+		this("Ordenador modo Experto", pProfundidad, pMegas);
+	}
+
+	private OrdenadorE(String pNombre, int pProfundidad, int pMegas) {
+		super(pNombre);
+		setProfundidad(pProfundidad);
+		this.tabla = new TablaTransposicion(pMegas);
+	}
+
+	/**
+	 * Crea el modo de un nivel de dificultad. El nivel pNivel visita como mucho NODOS_NIVEL_1 *
+	 * FACTOR_NIVEL^(pNivel-1) nodos por jugada, con la profundidad a la que lleguen, y su valoración se mueve hasta
+	 * RUIDO_NIVEL_1 / 2^(pNivel-1) arriba o abajo. Así lo que cuesta cada jugada no depende de la máquina ni de la
+	 * posición, y crece lo mismo de un nivel al siguiente. No usa libro, tabla de finales ni pensamiento en espera,
+	 * que jugarían mejor que su nivel y gastarían más.
+	 *
+	 * @param pNivel el nivel, de 1 a NIVEL_MAXIMO
+	 * @return el modo, de nombre PREFIJO_NIVEL + pNivel
+	 */
+	public static OrdenadorE crearNivel(int pNivel) {
+		if (pNivel < 1 || pNivel > NIVEL_MAXIMO) {
+			throw new IllegalArgumentException("El nivel tiene que estar entre 1 y " + NIVEL_MAXIMO + ": " + pNivel);
+		}
+		OrdenadorE nivel = new OrdenadorE(PREFIJO_NIVEL + pNivel, PROFUNDIDAD_MAXIMA, TABLA_NIVEL_MB);
+		long nodosNivel = NODOS_NIVEL_1;
+		for (int i = 1; i < pNivel; i++) {
+			nodosNivel *= FACTOR_NIVEL;
+		}
+		nivel.setMaxNodos(nodosNivel);
+		nivel.setRuido(RUIDO_NIVEL_1 >> (pNivel - 1));
+		return nivel;
+	}
+
+	/**
+	 * Simula un turno a partir de la posición introducida por el jugador.
+	 *
+	 * @param pColumna la columna en la que se va a introducir la ficha en la jugada
+	 * @return el resultado de la jugada / null
+	 */
+	public ResultadoJugada realizarJugada(int pColumna) {
+		detenerEspera();
+		Tablero tablero = getTablero();
+		int fila1 = tablero.colocarFicha(pColumna, true);
+		if (fila1 == -1) {
+			return null;
+		}
+		ResultadoJugada res = nuevoResultado();
+		res.setJugada(fila1, pColumna);
+		long linea1 = tablero.getLineaGanadora(fila1, pColumna, true);
+		if (linea1 != 0) {
+			res.setHaGanadoA(true);
+			res.setLineaGanadora(linea1);
+		} else if (tablero.tableroLleno()) {
+			res.setLleno(true);
+		} else {
+			int col2 = respuestaPensada(tablero.getBits());
+			if (col2 == -1) {
+				col2 = buscarColumna(tablero.getBits(), false);
+			}
+			int fila2 = tablero.colocarFicha(col2, false);
+			res.setJugada(fila2, col2);
+			long linea2 = tablero.getLineaGanadora(fila2, col2, false);
+			if (linea2 == 0) {
+				res.setLleno(tablero.tableroLleno());
+				if (pensarEnEspera && !res.isLleno()) {
+					empezarEspera(tablero.getBits());
+				}
+			} else {
+				res.setHaGanadoB(true);
+				res.setLineaGanadora(linea2);
+			}
+		}
+		return res;
+	}
+
+	/**
+	 * Elige la jugada del jugador al que le toca en el tablero, sin modificarlo.
+	 *
+	 * @param pTablero el tablero en el que se busca
+	 * @return la mejor columna encontrada, -1 si el tablero está lleno
+	 */
+	public int elegirColumna(Tablero pTablero) {
+		if (pTablero.tableroLleno()) {
+			return -1;
+		}
+		reanudar();
+		return buscarColumna(pTablero.getBits(), pTablero.getTurno());
+	}
+
+	/**
+	 * Pre: el tablero no está lleno y ningún jugador tiene línea
+	 * Post: el tablero queda como estaba
+	 * <p>
+	 * Con un solo hilo se busca sobre el propio núcleo. Con varios, cada hilo busca sobre una copia y todos comparten
+	 * la tabla de transposición (Lazy SMP): los hilos impares empiezan una profundidad más adelante para que lleguen
+	 * antes a posiciones que el principal todavía no ha visto. Cuando el principal termina se para a los demás y se
+	 * juega la columna de la iteración más profunda que se haya terminado.
+	 * <p>
+	 * Si la posición está en el libro de aperturas no se busca y se juega la columna del libro.
+	 *
+	 * @param pBits  el núcleo sobre el que se busca
+	 * @param pColor el jugador al que le toca
+	 * @return la mejor columna encontrada
+	 */
+	int buscarColumna(TableroBits pBits, boolean pColor) {
+		detenerEspera();
+		long inicio = System.nanoTime();
+		int columnaLibro = consultarLibro(pBits);
+		jugadaDeLibro = columnaLibro != -1;
+		jugadaPensada = false;
+		if (jugadaDeLibro) {
+			nodos = 0;
+			cortes = 0;
+			cortesPrimera = 0;
+			aciertosFinales = 0;
+			profundidadAlcanzada = 0;
+			valor = 0;
+			tiempo = System.nanoTime() - inicio;
+			return columnaLibro;
+		}
+		preparar(pBits);
+		limite = getTiempoMaximo() > 0 ? inicio + getTiempoMaximo() * 1000000 : Long.MAX_VALUE;
+		parar = false;
+		tabla.nuevaBusqueda();
+		TablaFinales conFinales = finales != null && finales.sirve(pBits) ? finales : null;
+		long semilla = aleatorio.nextLong();
+		for (OrdenJugadas orden : ordenes) {
+			orden.nuevaBusqueda();
+		}
+		Busqueda principal = new Busqueda(this::debeParar, pBits, tabla, conFinales, ordenes[0]);
+		limitar(principal, semilla);
+		Busqueda[] ayudantes = new Busqueda[hilos - 1];
+		ForkJoinTask<?>[] tareas = new ForkJoinTask<?>[hilos - 1];
+		for (int i = 0; i < ayudantes.length; i++) {
+			Busqueda ayudante = new Busqueda(this::debeParar, pBits.copiar(), tabla, conFinales, ordenes[i + 1]);
+			limitar(ayudante, semilla);
+			int desde = 1 + (i + 1) % 2;
+			ayudantes[i] = ayudante;
+			tareas[i] = pool.submit(() -> ayudante.iterar(pColor, desde, profundidad));
+		}
+		principal.iterar(pColor, 1, profundidad);
+		parar = true;
+		Busqueda elegida = principal;
+		nodos = principal.getNodos();
+		aciertosFinales = principal.getAciertosFinales();
+		for (int i = 0; i < ayudantes.length; i++) {
+			tareas[i].join();
+			nodos += ayudantes[i].getNodos();
+			aciertosFinales += ayudantes[i].getAciertosFinales();
+			if (ayudantes[i].getProfundidadAlcanzada() > elegida.getProfundidadAlcanzada()) {
+				elegida = ayudantes[i];
+			}
+		}
+		contarCortes();
+		profundidadAlcanzada = elegida.getProfundidadAlcanzada();
+		valor = elegida.getValorAlcanzado();
+		tiempo = System.nanoTime() - inicio;
+		return elegida.getMejorColumna();
+	}
+
+	/**
+	 * Pasa a la búsqueda el máximo de nodos y el ruido del modo. Todos los hilos usan la misma semilla para que cada
+	 * posición tenga el mismo ruido en todos.
+	 */
+	private void limitar(Busqueda pBusqueda, long pSemilla) {
+		if (maxNodos > 0) {
+			pBusqueda.setMaxNodos(maxNodos);
+		}
+		if (ruido > 0) {
+			pBusqueda.setRuido(ruido, pSemilla);
+		}
+	}
+
+	/**
+	 * Empieza a pensar en segundo plano sobre una copia del núcleo, en el que le toca al humano. Primero se busca
+	 * poco para adivinar su jugada y después se busca la respuesta a ella hasta que llegue la jugada de verdad, se
+	 * cancele o pase TIEMPO_ESPERA_MAXIMO. Las dos búsquedas usan la tabla de transposición del modo.
+	 *
+	 * @param pBits el núcleo después de la jugada del ordenador
+	 */
+	private void empezarEspera(TableroBits pBits) {
+		if (espera == null) {
+			espera = Executors.newSingleThreadExecutor(tarea -> {
+				Thread hilo = new Thread(tarea, "Conecta4-espera");
+				//QUE NO IMPIDA CERRAR LA APLICACIÓN
+				hilo.setDaemon(true);
+				return hilo;
+			});
+		}
+		preparar(pBits);
+		TableroBits copia = pBits.copiar();
+		TablaFinales conFinales = finales != null && finales.sirve(copia) ? finales : null;
+		OrdenJugadas ordenEspera = ordenes[0];
+		ordenEspera.nuevaBusqueda();
+		int profundidadEspera = profundidad;
+		long fin = System.nanoTime() + TIEMPO_ESPERA_MAXIMO * 1000000;
+		BooleanSupplier pararBusqueda = () -> pararEspera || System.nanoTime() > fin;
+		pararEspera = false;
+		jugadaPrevista = -1;
+		respuestaPrevista = null;
+		tareaEspera = espera.submit(() -> {
+			Busqueda prevision = new Busqueda(pararBusqueda, copia, tabla, conFinales, ordenEspera);
+			prevision.iterar(true, 1, Math.min(profundidadEspera, PROFUNDIDAD_PREVISION));
+			int prevista = prevision.getMejorColumna();
+			if (pararBusqueda.getAsBoolean() || prevista == -1) {
+				return;
+			}
+			int fila = copia.poner(prevista, true);
+			//SI EL HUMANO GANA O LLENA EL TABLERO NO HAY NADA QUE CONTESTAR, Y SI LA POSICIÓN ESTÁ EN EL LIBRO TAMPOCO
+			if (copia.formaLinea(fila, prevista, true) || copia.lleno() || consultarLibro(copia) != -1) {
+				return;
+			}
+			Busqueda respuesta = new Busqueda(pararBusqueda, copia, tabla, conFinales, ordenEspera);
+			clavePrevista = copia.getClave();
+			inicioRespuesta = System.nanoTime();
+			respuestaPrevista = respuesta;
+			jugadaPrevista = prevista;
+			respuesta.iterar(false, 1, profundidadEspera);
+		});
+	}
+
+	/**
+	 * Para el pensamiento en segundo plano, si lo hay, y espera a que termine.
+	 */
+	private void detenerEspera() {
+		if (tareaEspera == null) {
+			return;
+		}
+		pararEspera = true;
+		try {
+			tareaEspera.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			System.out.println("Error al pensar durante la espera: " + e.getCause());
+		}
+		tareaEspera = null;
+	}
+
+	/**
+	 * Post: si se usa la respuesta pensada, los datos de la última búsqueda pasan a ser los suyos
+	 * <p>
+	 * La respuesta sólo se usa si se ha pensado al menos tanto como se habría buscado ahora: el tiempo máximo del
+	 * modo o, si no tiene, su profundidad completa. Si no, se busca de nuevo y lo pensado sirve desde la tabla.
+	 *
+	 * @param pBits el núcleo después de la jugada del humano
+	 * @return la columna pensada durante la espera, o -1 si el humano no ha jugado lo previsto o no es suficiente
+	 */
+	private int respuestaPensada(TableroBits pBits) {
+		Busqueda respuesta = respuestaPrevista;
+		respuestaPrevista = null;
+		if (respuesta == null || pBits.getClave() != clavePrevista || respuesta.getProfundidadAlcanzada() == 0) {
+			return -1;
+		}
+		long pensado = System.nanoTime() - inicioRespuesta;
+		boolean suficiente = getTiempoMaximo() > 0 ? pensado >= getTiempoMaximo() * 1000000
+				: respuesta.getProfundidadAlcanzada() >= profundidad;
+		if (!suficiente) {
+			return -1;
+		}
+		jugadaDeLibro = false;
+		jugadaPensada = true;
+		contarCortes();
+		nodos = respuesta.getNodos();
+		aciertosFinales = respuesta.getAciertosFinales();
+		profundidadAlcanzada = respuesta.getProfundidadAlcanzada();
+		valor = respuesta.getValorAlcanzado();
+		tiempo = pensado;
+		return respuesta.getMejorColumna();
+	}
+
+	/**
+	 * Además de la búsqueda en curso para el pensamiento en segundo plano, sin esperar a que termine.
+	 */
+	@Override
+	public void cancelar() {
+		super.cancelar();
+		pararEspera = true;
+	}
+
+	/**
+	 * Lo consultan las búsquedas de todos los hilos cada cierto número de nodos.
+	 *
+	 * @return true si se ha acabado el tiempo, se ha cancelado la jugada o la búsqueda principal ha terminado
+	 */
+	boolean debeParar() {
+		return parar || isCancelado() || System.nanoTime() > limite;
+	}
+
+	/**
+	 * @return true mientras la búsqueda principal está en marcha
+	 */
+	boolean isBuscando() {
+		return !parar;
+	}
+
+	/**
+	 * Crea lo que ordena las columnas de cada hilo para las dimensiones del núcleo. Si son otras que las de la
+	 * búsqueda anterior se vacía la tabla de transposición, porque las claves de tableros distintos pueden coincidir.
+	 */
+	private void preparar(TableroBits pBits) {
+		if (preparado == null || preparado.getFilas() != pBits.getFilas()
+				|| preparado.getColumnas() != pBits.getColumnas() || preparado.getEnRaya() != pBits.getEnRaya()) {
+			if (preparado != null) {
+				tabla.limpiar();
+			}
+			preparado = pBits;
+			ordenes = null;
+		}
+		if (ordenes == null || ordenes.length != hilos) {
+			ordenes = new OrdenJugadas[hilos];
+			for (int i = 0; i < hilos; i++) {
+				ordenes[i] = new OrdenJugadas(pBits.getFilas(), pBits.getColumnas());
+			}
+		}
+	}
+
+	/**
+	 * Suma los cortes que han contado los hilos en la última búsqueda.
+	 */
+	private void contarCortes() {
+		cortes = 0;
+		cortesPrimera = 0;
+		for (OrdenJugadas orden : ordenes) {
+			cortes += orden.getCortes();
+			cortesPrimera += orden.getCortesPrimera();
+		}
+	}
+
+	public int getProfundidad() {
+		return profundidad;
+	}
+
+	public void setProfundidad(int pProfundidad) {
+		if (pProfundidad < 1 || pProfundidad > PROFUNDIDAD_MAXIMA) {
+			throw new IllegalArgumentException("La profundidad tiene que estar entre 1 y " + PROFUNDIDAD_MAXIMA + ": " + pProfundidad);
+		}
+		this.profundidad = pProfundidad;
+	}
+
+	public long getMaxNodos() {
+		return maxNodos;
+	}
+
+	/**
+	 * @param pMaxNodos posiciones que puede visitar cada hilo en cada búsqueda, 0 para no poner límite
+	 */
+	public void setMaxNodos(long pMaxNodos) {
+		if (pMaxNodos < 0) {
+			throw new IllegalArgumentException("El máximo de nodos no puede ser negativo: " + pMaxNodos);
+		}
+		this.maxNodos = pMaxNodos;
+	}
+
+	public int getRuido() {
+		return ruido;
+	}
+
+	/**
+	 * @param pRuido hasta cuánto se mueve al azar arriba o abajo la valoración estática de cada posición, 0 para no
+	 *               moverla. Las victorias y derrotas que se ven no se mueven
+	 */
+	public void setRuido(int pRuido) {
+		if (pRuido < 0 || pRuido > VICTORIA / 2) {
+			throw new IllegalArgumentException("Ruido no válido: " + pRuido);
+		}
+		this.ruido = pRuido;
+	}
+
+	public boolean isPensarEnEspera() {
+		return pensarEnEspera;
+	}
+
+	/**
+	 * @param pPensar true para seguir pensando en un hilo aparte mientras el humano elige su jugada
+	 */
+	public void setPensarEnEspera(boolean pPensar) {
+		if (!pPensar) {
+			detenerEspera();
+		}
+		this.pensarEnEspera = pPensar;
+	}
+
+	/**
+	 * @return true si el ordenador está pensando mientras espera la jugada del humano
+	 */
+	public boolean isPensando() {
+		return tareaEspera != null && !tareaEspera.isDone();
+	}
+
+	/**
+	 * @return la jugada que se espera del humano, o -1 si todavía no se sabe o no se está esperando
+	 */
+	public int getJugadaPrevista() {
+		return jugadaPrevista;
+	}
+
+	/**
+	 * @return true si la última jugada ya se había pensado mientras el humano elegía la suya, sin volver a buscar
+	 */
+	public boolean isJugadaPensada() {
+		return jugadaPensada;
+	}
+
+	public TablaFinales getFinales() {
+		return finales;
+	}
+
+	/**
+	 * @param pFinales tabla de finales que se consulta durante la búsqueda, null para no usar ninguna
+	 */
+	public void setFinales(TablaFinales pFinales) {
+		this.finales = pFinales;
+	}
+
+	/**
+	 * @return las posiciones de la última búsqueda que se han encontrado en la tabla de finales
+	 */
+	public long getAciertosFinales() {
+		return aciertosFinales;
+	}
+
+	public int getHilos() {
+		return hilos;
+	}
+
+	/**
+	 * Reparte la búsqueda entre pHilos hilos. Si son más de uno se crea un ForkJoinPool propio para los que ayudan al
+	 * principal, que es el que llama a realizarJugada. Si ya tenía uno propio del mismo tamaño se sigue usando, y si
+	 * no se cierra.
+	 *
+	 * @param pHilos número de hilos, al menos 1
+	 */
+	public void setHilos(int pHilos) {
+		if (pHilos < 1) {
+			throw new IllegalArgumentException("Número de hilos no válido: " + pHilos);
+		}
+		if (pHilos == hilos && (poolPropio || pool == null)) {
+			return;
+		}
+		cambiarPool(pHilos, pHilos < 2 ? null : new ForkJoinPool(pHilos - 1), true);
+	}
+
+	/**
+	 * Reparte la búsqueda entre pHilos hilos, lanzando los que ayudan al principal en el pool dado. El pool es de
+	 * quien lo pasa y el modo no lo cierra nunca.
+	 *
+	 * @param pHilos número de hilos, al menos 1
+	 * @param pPool  pool en el que se lanzan los pHilos - 1 ayudantes, null si sólo hay un hilo
+	 */
+	public void setHilos(int pHilos, ForkJoinPool pPool) {
+		if (pHilos < 1 || (pHilos > 1 && pPool == null)) {
+			throw new IllegalArgumentException("Número de hilos no válido: " + pHilos);
+		}
+		cambiarPool(pHilos, pPool, false);
+	}
+
+	/**
+	 * Para el pensamiento en segundo plano y cierra su hilo, que se vuelve a crear si se vuelve a pensar, y el pool de
+	 * los ayudantes si lo había creado el modo. Uno que se haya pasado de fuera no se cierra.
+	 */
+	@Override
+	public void cerrar() {
+		detenerEspera();
+		if (espera != null) {
+			espera.shutdown();
+			espera = null;
+		}
+		cambiarPool(1, null, false);
+	}
+
+	/**
+	 * @return el hilo en el que se piensa durante la espera, null si no se ha creado o se ha cerrado
+	 */
+	ExecutorService getEspera() {
+		return espera;
+	}
+
+	/**
+	 * Cambia el pool de los ayudantes, cerrando el anterior si lo había creado el modo. Las tareas que tuviera
+	 * pendientes terminan igualmente.
+	 */
+	private void cambiarPool(int pHilos, ForkJoinPool pPool, boolean pPropio) {
+		if (poolPropio && pool != null && pool != pPool) {
+			pool.shutdown();
+		}
+		this.hilos = pHilos;
+		this.pool = pPool;
+		this.poolPropio = pPropio && pPool != null;
+	}
+
+	/**
+	 * @return el pool en el que se lanzan los ayudantes, null si sólo hay un hilo
+	 */
+	ForkJoinPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * @return los nodos de la última búsqueda que han acabado en corte, sumando los de todos los hilos
+	 */
+	public long getCortes() {
+		return cortes;
+	}
+
+	/**
+	 * @return los nodos de la última búsqueda que han acabado en corte con la primera columna probada
+	 */
+	public long getCortesPrimera() {
+		return cortesPrimera;
+	}
+
+	/**
+	 * @return la parte de los cortes de la última búsqueda que se han dado con la primera columna probada, entre 0 y
+	 * 1. Cuanto más cerca de 1 mejor es el orden de las columnas
+	 */
+	public double getTasaCortesPrimera() {
+		if (cortes == 0) {
+			return 0;
+		}
+		return (double) cortesPrimera / cortes;
+	}
+
+	/**
+	 * @return las posiciones visitadas en la última búsqueda, sumando las de todos los hilos
+	 */
+	public long getNodos() {
+		return nodos;
+	}
+
+	/**
+	 * @return el valor de la columna elegida en la última búsqueda para el jugador al que le tocaba. Una victoria vale
+	 * VICTORIA menos las fichas del tablero al ganar y una derrota lo mismo en negativo
+	 */
+	public int getValor() {
+		return valor;
+	}
+
+	/**
+	 * @return true si la última jugada salió del libro de aperturas, sin buscar
+	 */
+	public boolean isJugadaDeLibro() {
+		return jugadaDeLibro;
+	}
+
+	/**
+	 * @return la profundidad de la última iteración que se terminó en la última búsqueda
+	 */
+	public int getProfundidadAlcanzada() {
+		return profundidadAlcanzada;
+	}
+
+	/**
+	 * @return el tiempo de la última búsqueda en milisegundos. Si la jugada se pensó durante la espera, el tiempo que
+	 * se pensó la respuesta
+	 */
+	public long getTiempoBusqueda() {
+		return tiempo / 1000000;
+	}
+
+	/**
+	 * @return las veces que una posición se ha encontrado en la tabla de transposición
+	 */
+	public long getAciertosTabla() {
+		return tabla.getAciertos();
+	}
+
+	/**
+	 * @return las veces que se ha consultado la tabla de transposición
+	 */
+	public long getConsultasTabla() {
+		return tabla.getConsultas();
+	}
+
+	/**
+	 * @return las veces que al guardar una posición su sitio en la tabla estaba ocupado por otras
+	 */
+	public long getColisionesTabla() {
+		return tabla.getColisiones();
+	}
+
+	/**
+	 * @return las posiciones visitadas por segundo en la última búsqueda
+	 */
+	public long getNodosPorSegundo() {
+		if (tiempo == 0) {
+			return 0;
+		}
+		return nodos * 1000000000L / tiempo;
+	}
+}
@@ -1,66 +1,58 @@
 package packModelo;
 
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
-
 import java.util.Random;
 
 public class OrdenadorF extends Modo {
 
+	private final Random r = new Random();
+
 	public OrdenadorF() {
 		super("Ordenador modo Facil");
 	}
 
 	/**
 	 * Pre: recibe como parámetro la columna introducida por el jugador
-	 * Post: devuelve un json que contiene la información de lo sucedido durante la partida
+	 * Post: devuelve el resultado de lo sucedido durante la partida
 	 *
 	 * @param pColumna la columna en la que se va a introducir la ficha en la jugada
-	 * @return Json de la forma {x:int, y:int, lleno: boolean, posicionesGanadoras {x1:,y1:,x2:,y2:...}} que contiene la
-	 * información de lo sucedido durante la partida y nulo en caso de que no se haya podido introducir la ficha
+	 * @return el resultado de la jugada o nulo en caso de que no se haya podido introducir la ficha
 	 * @author Naiara Maneiro
 	 */
-	public JSONObject jugar(int pColumna) {
+	public ResultadoJugada realizarJugada(int pColumna) {
 		boolean turno = true;
-		JSONObject json = Tablero.getmTablero().introducirFicha(pColumna, true);
-		if (json != null) {
-			Integer filaA = (Integer) json.get("fila");
-			Integer columnaA = (Integer) json.get("columna");
-			JSONArray ganadoA = Tablero.getmTablero().haGanado(filaA, columnaA, true);
-			boolean lleno = (boolean) json.get("lleno");
-			if (ganadoA == null && !lleno) {
+		Tablero tablero = getTablero();
+		int filaA = tablero.colocarFicha(pColumna, true);
+		if (filaA != -1) {
+			ResultadoJugada res = nuevoResultado();
+			res.setJugada(filaA, pColumna);
+			long ganadoA = tablero.getLineaGanadora(filaA, pColumna, true);
+			boolean lleno = tablero.tableroLleno();
+			res.setLleno(lleno);
+			if (ganadoA == 0 && !lleno) {
 				turno = !turno;
 				boolean enc = false;
-				Random r = new Random();
 				while (!enc) {
-					int col = r.nextInt(9);
-					boolean ocupada = Tablero.getmTablero().ocupada(col);
+					int col = r.nextInt(tablero.getColumnas());
+					boolean ocupada = tablero.ocupada(col);
 					if (!ocupada) {
-						json = Tablero.getmTablero().introducirFicha(col, turno);
+						int filaB = tablero.colocarFicha(col, turno);
 						enc = true;
-						Integer filaB = (Integer) json.get("fila");
-						Integer columnaB = (Integer) json.get("columna");
-						JSONArray ganadoB = Tablero.getmTablero().haGanado(filaB, columnaB, turno);
-						if (ganadoB != null) {
-							json.put("posicionesGanadoras", ganadoB);
-							json.put("haGanadoA", false);
-							json.put("haGanadoB", true);
-						} else {
-							json.put("haGanadoA", false);
-							json.put("haGanadoB", false);
+						res.setJugada(filaB, col);
+						res.setLleno(tablero.tableroLleno());
+						long ganadoB = tablero.getLineaGanadora(filaB, col, turno);
+						if (ganadoB != 0) {
+							res.setLineaGanadora(ganadoB);
+							res.setHaGanadoB(true);
 						}
 					}
 				}
 			} else {
-				json.put("posicionesGanadoras", ganadoA);
-				json.put("haGanadoA", true);
-				json.put("haGanadoB", false);
+				res.setLineaGanadora(ganadoA);
+				res.setHaGanadoA(true);
 			}
-			json.remove("fila");
-			json.remove("columna");
-			return json;
+			return res;
 		} else {
 			return null;
 		}
 	}
-}
\ No newline at end of file
+}
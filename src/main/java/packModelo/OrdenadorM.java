@@ -0,0 +1,408 @@
+package packModelo;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Modo Montecarlo: el ordenador elige su jugada con una búsqueda de árbol Montecarlo (MCTS). En cada iteración se baja
+ * por el árbol eligiendo con UCT, se añade una posición nueva y desde ella se juega una partida con columnas al azar,
+ * como las del modo fácil. El resultado se suma a todas las posiciones del camino y al final se juega la columna más
+ * visitada.
+ * <p>
+ * Las partidas al azar se pueden repartir entre varios hilos, cada uno con su copia del tablero y su propio generador
+ * de números aleatorios. Bajar y actualizar el árbol se hace con un cerrojo; las partidas, que es lo que cuesta, se
+ * juegan fuera de él. Una visita se cuenta al bajar y la victoria al terminar la partida, así que mientras tanto la
+ * posición parece perdida (pérdida virtual) y los demás hilos prefieren otros caminos.
+ * <p>
+ * El árbol se conserva entre turnos: tras la jugada del ordenador y la siguiente del jugador se sigue desde el hijo
+ * correspondiente, con las visitas que ya tenía.
+ */
+public class OrdenadorM extends Modo {
+
+	/**
+	 * Iteraciones por jugada si no se indican otras.
+	 */
+	public static final int ITERACIONES_DEFECTO = 20000;
+	/**
+	 * Constante de exploración de UCT.
+	 */
+	private static final double EXPLORACION = 1.4;
+
+	private int iteraciones;
+	private int hilos = 1;
+	private ForkJoinPool pool;
+	private final SplittableRandom aleatorio;
+
+	/**
+	 * Árbol de la última búsqueda, ya colocado en la posición tras la jugada del ordenador, y clave de esa posición.
+	 */
+	private Nodo raiz;
+	private long claveRaiz;
+	private final Object cerrojo = new Object();
+	private final AtomicInteger hechas = new AtomicInteger();
+	private volatile long limite;
+	private volatile boolean buscando;
+
+	private int iteracionesHechas;
+	private int visitasRaiz;
+	private long tiempo;
+
+	public OrdenadorM() {
+		this(ITERACIONES_DEFECTO);
+	}
+
+	public OrdenadorM(int pIteraciones) {
+		this(pIteraciones, new SplittableRandom().nextLong());
+	}
+
+	/**
+	 * @param pIteraciones número de partidas al azar por jugada
+	 * @param pSemilla     semilla de la que salen los generadores de todos los hilos
+	 */
+	public OrdenadorM(int pIteraciones, long pSemilla) {
+		super("Ordenador modo Montecarlo");
+		setIteraciones(pIteraciones);
+		this.aleatorio = new SplittableRandom(pSemilla);
+	}
+
+	/**
+	 * Simula un turno a partir de la posición introducida por el jugador.
+	 *
+	 * @param pColumna la columna en la que se va a introducir la ficha en la jugada
+	 * @return el resultado de la jugada / null
+	 */
+	public ResultadoJugada realizarJugada(int pColumna) {
+		Tablero tablero = getTablero();
+		long claveAntes = tablero.getClave();
+		int fila1 = tablero.colocarFicha(pColumna, true);
+		if (fila1 == -1) {
+			return null;
+		}
+		ResultadoJugada res = nuevoResultado();
+		res.setJugada(fila1, pColumna);
+		long linea1 = tablero.getLineaGanadora(fila1, pColumna, true);
+		if (linea1 != 0) {
+			res.setHaGanadoA(true);
+			res.setLineaGanadora(linea1);
+		} else if (tablero.tableroLleno()) {
+			res.setLleno(true);
+		} else {
+			reutilizar(claveAntes, pColumna);
+			int col2 = buscarColumna(tablero.getBits(), false);
+			int fila2 = tablero.colocarFicha(col2, false);
+			res.setJugada(fila2, col2);
+			bajarRaiz(col2, tablero.getClave());
+			long linea2 = tablero.getLineaGanadora(fila2, col2, false);
+			if (linea2 == 0) {
+				res.setLleno(tablero.tableroLleno());
+			} else {
+				res.setHaGanadoB(true);
+				res.setLineaGanadora(linea2);
+			}
+		}
+		return res;
+	}
+
+	/**
+	 * Si el árbol guardado es el de la posición anterior a la jugada del jugador, se baja al hijo de esa jugada. Si
+	 * no, por ejemplo porque se ha empezado otra partida, se descarta.
+	 */
+	private void reutilizar(long pClaveAntes, int pColumna) {
+		if (raiz != null && claveRaiz == pClaveAntes) {
+			raiz = raiz.hijos[pColumna];
+		} else {
+			raiz = null;
+		}
+	}
+
+	/**
+	 * Tras la jugada del ordenador se guarda el subárbol de esa jugada para el turno siguiente.
+	 */
+	private void bajarRaiz(int pColumna, long pClave) {
+		//SI LA JUGADA HA SALIDO DEL LIBRO NO HAY ÁRBOL
+		raiz = raiz == null ? null : raiz.hijos[pColumna];
+		claveRaiz = pClave;
+	}
+
+	/**
+	 * Pre: el tablero no está lleno y ningún jugador tiene línea
+	 * Post: el tablero queda como estaba
+	 *
+	 * @param pBits  el núcleo sobre el que se busca
+	 * @param pColor el jugador al que le toca
+	 * @return la columna del libro de aperturas si la posición está en él, si no la más visitada
+	 */
+	int buscarColumna(TableroBits pBits, boolean pColor) {
+		long inicio = System.nanoTime();
+		int columnaLibro = consultarLibro(pBits);
+		if (columnaLibro != -1) {
+			raiz = null;
+			iteracionesHechas = 0;
+			visitasRaiz = 0;
+			tiempo = System.nanoTime() - inicio;
+			return columnaLibro;
+		}
+		limite = getTiempoMaximo() > 0 ? inicio + getTiempoMaximo() * 1000000 : Long.MAX_VALUE;
+		if (raiz == null) {
+			//EL NODO RAÍZ REPRESENTA LA JUGADA DEL RIVAL QUE HA LLEVADO A LA POSICIÓN
+			raiz = new Nodo(-1, !pColor, pBits.getColumnas());
+		}
+		hechas.set(0);
+		buscando = true;
+		ForkJoinTask<?>[] tareas = new ForkJoinTask<?>[hilos - 1];
+		for (int i = 0; i < tareas.length; i++) {
+			TableroBits copia = pBits.copiar();
+			SplittableRandom r = aleatorio.split();
+			tareas[i] = pool.submit(() -> iterar(copia, r));
+		}
+		iterar(pBits, aleatorio.split());
+		for (ForkJoinTask<?> tarea : tareas) {
+			tarea.join();
+		}
+		buscando = false;
+		iteracionesHechas = hechas.get();
+		visitasRaiz = raiz.visitas;
+		tiempo = System.nanoTime() - inicio;
+		Nodo mejor = null;
+		for (Nodo hijo : raiz.hijos) {
+			if (hijo != null && (mejor == null || hijo.visitas > mejor.visitas)) {
+				mejor = hijo;
+			}
+		}
+		if (mejor == null) {
+			//NO HA DADO TIEMPO A NINGUNA ITERACIÓN
+			for (int col = 0; col < pBits.getColumnas(); col++) {
+				if (!pBits.columnaLlena(col)) {
+					return col;
+				}
+			}
+		}
+		return mejor.columna;
+	}
+
+	/**
+	 * Bucle de un hilo: hace iteraciones hasta completar las pedidas entre todos, acabar el tiempo o cancelarse.
+	 */
+	private void iterar(TableroBits pBits, SplittableRandom pAleatorio) {
+		Nodo[] camino = new Nodo[pBits.getFilas() * pBits.getColumnas() + 1];
+		int[] jugadas = new int[pBits.getFilas() * pBits.getColumnas()];
+		while (hechas.getAndIncrement() < iteraciones && !isCancelado() && System.nanoTime() <= limite) {
+			int largo;
+			Nodo hoja;
+			synchronized (cerrojo) {
+				largo = seleccionar(pBits, pAleatorio, camino);
+				hoja = camino[largo - 1];
+			}
+			//0 EMPATE, 1 GANAN LAS ROJAS, -1 GANAN LAS AZULES
+			int ganador = hoja.terminal ? hoja.resultado : jugarAlAzar(pBits, !hoja.color, pAleatorio, jugadas);
+			synchronized (cerrojo) {
+				for (int i = 0; i < largo; i++) {
+					Nodo nodo = camino[i];
+					if (ganador == 0) {
+						nodo.victorias += 0.5;
+					} else if ((ganador == 1) == nodo.color) {
+						nodo.victorias += 1;
+					}
+				}
+			}
+			for (int i = largo - 1; i > 0; i--) {
+				pBits.quitar(camino[i].columna);
+			}
+		}
+		hechas.decrementAndGet();
+	}
+
+	/**
+	 * Baja desde la raíz eligiendo con UCT hasta una posición terminal o con alguna columna sin probar, que se añade
+	 * al árbol. Las jugadas del camino se hacen sobre pBits y cada nodo del camino suma ya su visita.
+	 *
+	 * @return el número de nodos del camino, que quedan en pCamino
+	 */
+	private int seleccionar(TableroBits pBits, SplittableRandom pAleatorio, Nodo[] pCamino) {
+		Nodo nodo = raiz;
+		int largo = 0;
+		while (true) {
+			nodo.visitas++;
+			pCamino[largo++] = nodo;
+			if (nodo.terminal) {
+				return largo;
+			}
+			int sinProbar = 0;
+			for (int col = 0; col < nodo.hijos.length; col++) {
+				if (nodo.hijos[col] == null && !pBits.columnaLlena(col)) {
+					sinProbar++;
+				}
+			}
+			if (sinProbar > 0) {
+				int elegida = pAleatorio.nextInt(sinProbar);
+				for (int col = 0; col < nodo.hijos.length; col++) {
+					if (nodo.hijos[col] == null && !pBits.columnaLlena(col) && elegida-- == 0) {
+						Nodo hijo = new Nodo(col, !nodo.color, nodo.hijos.length);
+						nodo.hijos[col] = hijo;
+						int fila = pBits.poner(col, hijo.color);
+						if (pBits.completaLinea(fila, col, hijo.color)) {
+							hijo.terminal = true;
+							hijo.resultado = hijo.color ? 1 : -1;
+						} else if (pBits.lleno()) {
+							hijo.terminal = true;
+						}
+						hijo.visitas++;
+						pCamino[largo++] = hijo;
+						return largo;
+					}
+				}
+			}
+			Nodo mejor = null;
+			double mejorValor = Double.NEGATIVE_INFINITY;
+			double logPadre = Math.log(nodo.visitas);
+			for (Nodo hijo : nodo.hijos) {
+				if (hijo != null) {
+					double valor = hijo.victorias / hijo.visitas + EXPLORACION * Math.sqrt(logPadre / hijo.visitas);
+					if (valor > mejorValor) {
+						mejorValor = valor;
+						mejor = hijo;
+					}
+				}
+			}
+			pBits.poner(mejor.columna, mejor.color);
+			nodo = mejor;
+		}
+	}
+
+	/**
+	 * Juega desde la posición de pBits eligiendo columnas al azar hasta que alguien gana o se llena el tablero, y
+	 * deja pBits como estaba.
+	 *
+	 * @param pColor   el jugador al que le toca
+	 * @param pJugadas donde se apuntan las columnas jugadas para deshacerlas, uno por hilo y tan largo como casillas
+	 *                 tiene el tablero
+	 * @return 1 si ganan las rojas, -1 si ganan las azules, 0 si hay empate
+	 */
+	private int jugarAlAzar(TableroBits pBits, boolean pColor, SplittableRandom pAleatorio, int[] pJugadas) {
+		int numJugadas = 0;
+		int ganador = 0;
+		boolean color = pColor;
+		while (!pBits.lleno()) {
+			int col;
+			do {
+				col = pAleatorio.nextInt(pBits.getColumnas());
+			} while (pBits.columnaLlena(col));
+			int fila = pBits.poner(col, color);
+			pJugadas[numJugadas++] = col;
+			if (pBits.completaLinea(fila, col, color)) {
+				ganador = color ? 1 : -1;
+				break;
+			}
+			color = !color;
+		}
+		while (numJugadas > 0) {
+			pBits.quitar(pJugadas[--numJugadas]);
+		}
+		return ganador;
+	}
+
+	public int getIteraciones() {
+		return iteraciones;
+	}
+
+	public void setIteraciones(int pIteraciones) {
+		if (pIteraciones < 1) {
+			throw new IllegalArgumentException("Hace falta al menos una iteración: " + pIteraciones);
+		}
+		this.iteraciones = pIteraciones;
+	}
+
+	public int getHilos() {
+		return hilos;
+	}
+
+	/**
+	 * Reparte las partidas al azar entre pHilos hilos. Si son más de uno se crea un ForkJoinPool propio para los que
+	 * ayudan al principal. Si ya tenía uno del mismo tamaño se sigue usando, y si no se cierra.
+	 *
+	 * @param pHilos número de hilos, al menos 1
+	 */
+	public void setHilos(int pHilos) {
+		if (pHilos < 1) {
+			throw new IllegalArgumentException("Número de hilos no válido: " + pHilos);
+		}
+		if (pHilos == hilos) {
+			return;
+		}
+		if (pool != null) {
+			//LAS TAREAS QUE TUVIERA PENDIENTES TERMINAN IGUALMENTE
+			pool.shutdown();
+		}
+		this.hilos = pHilos;
+		this.pool = pHilos > 1 ? new ForkJoinPool(pHilos - 1) : null;
+	}
+
+	/**
+	 * Cierra el pool de los ayudantes.
+	 */
+	@Override
+	public void cerrar() {
+		setHilos(1);
+	}
+
+	/**
+	 * @return el pool en el que se lanzan los ayudantes, null si sólo hay un hilo
+	 */
+	ForkJoinPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * @return las iteraciones hechas en la última búsqueda
+	 */
+	public int getIteracionesHechas() {
+		return iteracionesHechas;
+	}
+
+	/**
+	 * @return las visitas de la raíz al terminar la última búsqueda, incluidas las que traía de turnos anteriores
+	 */
+	public int getVisitasRaiz() {
+		return visitasRaiz;
+	}
+
+	/**
+	 * @return el tiempo de la última búsqueda en milisegundos
+	 */
+	public long getTiempoBusqueda() {
+		return tiempo / 1000000;
+	}
+
+	/**
+	 * @return true mientras hay una búsqueda en marcha
+	 */
+	boolean isBuscando() {
+		return buscando;
+	}
+
+	/**
+	 * Posición del árbol, a la que se llega con la jugada columna del jugador color. Las victorias se cuentan desde el
+	 * punto de vista de ese jugador, que es el que elige esta posición desde su padre.
+	 */
+	private static final class Nodo {
+
+		private final int columna;
+		private final boolean color;
+		/**
+		 * Hijos por columna, null las que no se han probado todavía.
+		 */
+		private final Nodo[] hijos;
+		private int visitas;
+		private double victorias;
+		private boolean terminal;
+		private int resultado;
+
+		private Nodo(int pColumna, boolean pColor, int pColumnas) {
+			this.columna = pColumna;
+			this.color = pColor;
+			this.hijos = new Nodo[pColumnas];
+		}
+	}
+}
@@ -1,8 +1,5 @@
 package packModelo;
 
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
-
 public class OvO extends Modo {
 
 	private boolean turno = true;
@@ -13,32 +10,31 @@ public class OvO extends Modo {
 
 	/**
 	 * Pre: recibe como parámetro la columna introducida por el jugador
-	 * Post:devuelve un json que contiene la información de lo sucedido durante la partida
+	 * Post: devuelve el resultado de lo sucedido durante la partida
 	 *
 	 * @param pColumna la columna en la que se va a introducir la ficha en la jugada
-	 * @return Json de la forma {haGanadoA : boolean, haGanadoB : boolean, lleno: boolean, posicionesGanadoras {x1:,y1:,x2:,y2:...}} que contiene la
-	 * información de lo sucedido durante la partida y nulo en caso de que no se haya podido introducir la ficha
+	 * @return el resultado de la jugada o nulo en caso de que no se haya podido introducir la ficha
 	 * @author Nuria Lebeña
 	 */
-	public JSONObject jugar(int pColumna) {
-		JSONObject json = Tablero.getmTablero().introducirFicha(pColumna, turno);
-		if (json != null) {
-			Integer fila = (Integer) json.get("fila");
-			Integer columna = (Integer) json.get("columna");
-			JSONArray ganado = Tablero.getmTablero().haGanado(fila, columna, turno);
-			json.put("haGanadoA", false);
-			json.put("haGanadoB", false);
-			if (ganado == null) {
+	public ResultadoJugada realizarJugada(int pColumna) {
+		Tablero tablero = getTablero();
+		int fila = tablero.colocarFicha(pColumna, turno);
+		if (fila != -1) {
+			ResultadoJugada res = nuevoResultado();
+			res.setJugada(fila, pColumna);
+			res.setLleno(tablero.tableroLleno());
+			long ganado = tablero.getLineaGanadora(fila, pColumna, turno);
+			if (ganado == 0) {
 				cambiarTurno();
 			} else {
 				if (turno) {
-					json.put("haGanadoB", true);
+					res.setHaGanadoB(true);
 				} else {
-					json.put("haGanadoA", true);
+					res.setHaGanadoA(true);
 				}
-				json.put("posicionesGanadoras", ganado);
+				res.setLineaGanadora(ganado);
 			}
-			return json;
+			return res;
 		} else {
 			return null;
 		}
@@ -52,4 +48,4 @@ public class OvO extends Modo {
 	public void cambiarTurno() {
 		turno = !turno;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,97 @@
+package packModelo;
+
+import org.json.simple.JSONObject;
+
+/**
+ * Guarda lo sucedido en un turno: la fila y columna de la última ficha introducida, si el tablero se ha llenado, qué
+ * jugador ha ganado y las casillas de la línea ganadora. Cada modo de juego reutiliza siempre la misma instancia, por
+ * lo que el resultado sólo es válido hasta la siguiente jugada.
+ */
+public class ResultadoJugada {
+
+	private int fila;
+	private int columna;
+	private boolean lleno;
+	private boolean haGanadoA;
+	private boolean haGanadoB;
+	/**
+	 * Línea ganadora tal y como la devuelve Tablero.getLineaGanadora, 0 si nadie ha ganado.
+	 */
+	private long lineaGanadora;
+
+	/**
+	 * Deja el resultado como al inicio de un turno, sin ficha introducida ni ganador.
+	 */
+	void reiniciar() {
+		fila = -1;
+		columna = -1;
+		lleno = false;
+		haGanadoA = false;
+		haGanadoB = false;
+		lineaGanadora = 0L;
+	}
+
+	void setJugada(int pFila, int pColumna) {
+		this.fila = pFila;
+		this.columna = pColumna;
+	}
+
+	void setLleno(boolean pLleno) {
+		this.lleno = pLleno;
+	}
+
+	void setHaGanadoA(boolean pHaGanadoA) {
+		this.haGanadoA = pHaGanadoA;
+	}
+
+	void setHaGanadoB(boolean pHaGanadoB) {
+		this.haGanadoB = pHaGanadoB;
+	}
+
+	void setLineaGanadora(long pLinea) {
+		this.lineaGanadora = pLinea;
+	}
+
+	public int getFila() {
+		return fila;
+	}
+
+	public int getColumna() {
+		return columna;
+	}
+
+	public boolean isLleno() {
+		return lleno;
+	}
+
+	public boolean isHaGanadoA() {
+		return haGanadoA;
+	}
+
+	public boolean isHaGanadoB() {
+		return haGanadoB;
+	}
+
+	public long getLineaGanadora() {
+		return lineaGanadora;
+	}
+
+	/**
+	 * Convierte el resultado al formato JSON que se usaba antes, para quien todavía necesite un mapa.
+	 *
+	 * @return JSON de la forma {fila:int, columna:int, lleno:boolean, haGanadoA:boolean, haGanadoB:boolean,
+	 * lineaGanadora:long}, donde lineaGanadora sólo aparece si alguien ha ganado
+	 */
+	public JSONObject toJSON() {
+		JSONObject json = new JSONObject();
+		json.put("fila", fila);
+		json.put("columna", columna);
+		json.put("lleno", lleno);
+		json.put("haGanadoA", haGanadoA);
+		json.put("haGanadoB", haGanadoB);
+		if (lineaGanadora != 0) {
+			json.put("lineaGanadora", lineaGanadora);
+		}
+		return json;
+	}
+}
@@ -0,0 +1,359 @@
+package packModelo;
+
+import org.json.simple.JSONObject;
+
+/**
+ * Resuelve una posición: calcula su valor exacto con juego perfecto de los dos jugadores y la mejor columna. Sirve
+ * para analizar partidas y para comprobar cómo juegan los demás modos.
+ * <p>
+ * La puntuación de una posición con n fichas es casillas + 1 - m si el jugador al que le toca gana con su ficha número
+ * m, lo mismo en negativo si pierde y 0 si es empate, así que ganar antes y perder después es mejor. En lugar de
+ * buscar con una ventana amplia, el valor se acota con búsquedas de ventana nula (¿es la puntuación mayor que x?),
+ * que podan mucho más, partiendo el intervalo por la mitad como en MTD(f) y probando primero cerca del empate.
+ * <p>
+ * Las búsquedas comparten una tabla de transposición en la que cada posición y su simétrica (izquierda-derecha) son
+ * la misma entrada: se guarda con la menor de sus dos claves y la columna se refleja al guardar y al leer. En las
+ * posiciones simétricas sólo se prueba la mitad de las columnas.
+ */
+public class Solucionador {
+
+	/**
+	 * Tamaño en MB de la tabla de transposición si no se indica otro.
+	 */
+	public static final int TABLA_DEFECTO_MB = 64;
+
+	private final TablaTransposicion tabla;
+	private long tiempoMaximo;
+	private volatile boolean cancelado;
+	private long limite;
+	private boolean abandonada;
+
+	private TableroBits bits;
+	private int casillas;
+	/**
+	 * Orden de las columnas y dimensiones del tablero para las que se calculó. La tabla de transposición también es
+	 * de ese tablero.
+	 */
+	private int[] orden;
+	private int enRaya;
+
+	/**
+	 * Datos de la última llamada a resolver.
+	 */
+	private boolean resuelto;
+	private int puntuacion;
+	private int columna;
+	private long nodos;
+	private long tiempo;
+
+	public Solucionador() {
+		this(TABLA_DEFECTO_MB);
+	}
+
+	/**
+	 * @param pMegas tamaño en MB de la tabla de transposición
+	 */
+	public Solucionador(int pMegas) {
+		this.tabla = new TablaTransposicion(pMegas);
+	}
+
+	/**
+	 * Resuelve la posición para el jugador al que le toca. Si se acaba el tiempo máximo o se cancela, isResuelto
+	 * devuelve false y el valor y la columna no son válidos.
+	 * <p>
+	 * Pre: ningún jugador tiene línea
+	 * Post: el tablero queda como estaba
+	 *
+	 * @param pTablero la posición
+	 * @return la mejor columna, -1 si el tablero está lleno o no se ha podido resolver
+	 */
+	public int resolver(Tablero pTablero) {
+		long inicio = System.nanoTime();
+		cancelado = false;
+		abandonada = false;
+		limite = tiempoMaximo > 0 ? inicio + tiempoMaximo * 1000000 : Long.MAX_VALUE;
+		nodos = 0;
+		tabla.nuevaBusqueda();
+		bits = pTablero.getBits().copiar();
+		preparar();
+		casillas = bits.getFilas() * bits.getColumnas();
+		boolean color = pTablero.getTurno();
+		puntuacion = bits.lleno() ? 0 : buscarPuntuacion(color);
+		columna = abandonada || bits.lleno() ? -1 : buscarColumna(color);
+		resuelto = !abandonada;
+		tiempo = System.nanoTime() - inicio;
+		return columna;
+	}
+
+	/**
+	 * Acota la puntuación con búsquedas de ventana nula hasta que el intervalo se queda en un solo valor.
+	 */
+	private int buscarPuntuacion(boolean pColor) {
+		int restantes = casillas - bits.getNumFichas();
+		int min = -restantes;
+		int max = restantes;
+		while (min < max && !abandonada) {
+			int medio = min + (max - min) / 2;
+			//LA MAYORÍA DE LAS POSICIONES ESTÁN CERCA DEL EMPATE, ASÍ QUE SE PRUEBA ANTES POR AHÍ
+			if (medio <= 0 && min / 2 < medio) {
+				medio = min / 2;
+			} else if (medio >= 0 && max / 2 > medio) {
+				medio = max / 2;
+			}
+			int r = negamax(pColor, medio, medio + 1);
+			if (r <= medio) {
+				max = r;
+			} else {
+				min = r;
+			}
+		}
+		return min;
+	}
+
+	/**
+	 * Con la puntuación ya conocida, busca una columna que la consiga.
+	 */
+	private int buscarColumna(boolean pColor) {
+		long ganadoras = bits.columnasGanadoras(pColor);
+		if (ganadoras != 0) {
+			return Long.numberOfTrailingZeros(ganadoras);
+		}
+		for (int col : orden) {
+			if (bits.columnaLlena(col)) {
+				continue;
+			}
+			bits.poner(col, pColor);
+			int valor = -negamax(!pColor, -puntuacion, -puntuacion + 1);
+			bits.quitar(col);
+			if (abandonada) {
+				return -1;
+			}
+			if (valor >= puntuacion) {
+				return col;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Búsqueda alfa-beta hasta el final de la partida.
+	 *
+	 * @return la puntuación de la posición para pColor si está entre pAlfa y pBeta, o una cota si no
+	 */
+	private int negamax(boolean pColor, int pAlfa, int pBeta) {
+		nodos++;
+		if ((nodos & 1023) == 0 && (cancelado || System.nanoTime() > limite)) {
+			abandonada = true;
+		}
+		if (abandonada) {
+			return 0;
+		}
+		if (bits.lleno()) {
+			return 0;
+		}
+		int n = bits.getNumFichas();
+		if (bits.columnasGanadoras(pColor) != 0) {
+			return casillas - n;
+		}
+		//SI EL RIVAL TIENE DOS LÍNEAS PARA LA SIGUIENTE JUGADA NO SE PUEDEN TAPAR LAS DOS
+		long tapar = bits.columnasGanadoras(!pColor);
+		if (Long.bitCount(tapar) > 1) {
+			return -(casillas - n - 1);
+		}
+		//COMO PRONTO SE GANA CON LA SEGUNDA FICHA PROPIA A PARTIR DE AHORA
+		int maxima = Math.max(casillas - n - 2, 0);
+		if (pBeta > maxima) {
+			pBeta = maxima;
+			if (pAlfa >= pBeta) {
+				return pBeta;
+			}
+		}
+		long clave = bits.getClave();
+		long claveEspejo = bits.getClaveEspejo();
+		boolean espejo = claveEspejo < clave;
+		long canonica = espejo ? claveEspejo : clave;
+		int primera = -1;
+		long dato = tabla.consultar(canonica);
+		if (dato != 0) {
+			int valor = TablaTransposicion.getValor(dato);
+			int tipo = TablaTransposicion.getTipo(dato);
+			if (tipo == TablaTransposicion.EXACTO) {
+				return valor;
+			} else if (tipo == TablaTransposicion.INFERIOR && valor > pAlfa) {
+				pAlfa = valor;
+			} else if (tipo == TablaTransposicion.SUPERIOR && valor < pBeta) {
+				pBeta = valor;
+			}
+			if (pAlfa >= pBeta) {
+				return valor;
+			}
+			primera = reflejar(TablaTransposicion.getColumna(dato), espejo);
+		}
+		int alfaInicial = pAlfa;
+		int mejor = -casillas - 1;
+		int mejorCol = -1;
+		boolean simetrica = clave == claveEspejo;
+		for (int i = -1; i < orden.length && pAlfa < pBeta && !abandonada; i++) {
+			int col = i < 0 ? primera : orden[i];
+			if (col < 0 || (i >= 0 && col == primera) || bits.columnaLlena(col)) {
+				continue;
+			}
+			//CON UNA LÍNEA DEL RIVAL POR TAPAR SÓLO SE PUEDE JUGAR AHÍ
+			if (tapar != 0 && (tapar >>> col & 1) == 0) {
+				continue;
+			}
+			//EN UNA POSICIÓN SIMÉTRICA LAS COLUMNAS DE LA DERECHA DAN LO MISMO QUE LAS DE LA IZQUIERDA
+			if (simetrica && col > bits.getColumnas() - 1 - col) {
+				continue;
+			}
+			bits.poner(col, pColor);
+			int valor = -negamax(!pColor, -pBeta, -pAlfa);
+			bits.quitar(col);
+			if (valor > mejor) {
+				mejor = valor;
+				mejorCol = col;
+				if (valor > pAlfa) {
+					pAlfa = valor;
+				}
+			}
+		}
+		if (abandonada) {
+			return 0;
+		}
+		int tipo;
+		if (mejor <= alfaInicial) {
+			tipo = TablaTransposicion.SUPERIOR;
+		} else if (mejor >= pBeta) {
+			tipo = TablaTransposicion.INFERIOR;
+		} else {
+			tipo = TablaTransposicion.EXACTO;
+		}
+		tabla.guardar(canonica, mejor, casillas - n, tipo, reflejar(mejorCol, espejo));
+		return mejor;
+	}
+
+	/**
+	 * @return la columna simétrica si pEspejo, o la misma si no. -1 se queda como está
+	 */
+	private int reflejar(int pColumna, boolean pEspejo) {
+		return pColumna < 0 || !pEspejo ? pColumna : bits.getColumnas() - 1 - pColumna;
+	}
+
+	/**
+	 * Calcula el orden de las columnas, del centro hacia fuera. Si el tablero es distinto del anterior se vacía la
+	 * tabla de transposición, porque las claves de tableros con distinto número de fichas en raya coinciden.
+	 */
+	private void preparar() {
+		int columnas = bits.getColumnas();
+		if (orden != null && orden.length == columnas && casillas == bits.getFilas() * columnas
+				&& enRaya == bits.getEnRaya()) {
+			return;
+		}
+		tabla.limpiar();
+		enRaya = bits.getEnRaya();
+		orden = new int[columnas];
+		for (int i = 0; i < columnas; i++) {
+			int salto = (i + 1) / 2;
+			orden[i] = (columnas - 1) / 2 + (i % 2 == 1 ? salto : -salto);
+		}
+	}
+
+	/**
+	 * Pide a la resolución en curso que termine. Se puede llamar desde cualquier hilo.
+	 */
+	public void cancelar() {
+		cancelado = true;
+	}
+
+	public long getTiempoMaximo() {
+		return tiempoMaximo;
+	}
+
+	/**
+	 * @param pMilisegundos tiempo máximo de cada resolución, 0 para no poner límite
+	 */
+	public void setTiempoMaximo(long pMilisegundos) {
+		if (pMilisegundos < 0) {
+			throw new IllegalArgumentException("El tiempo máximo no puede ser negativo: " + pMilisegundos);
+		}
+		this.tiempoMaximo = pMilisegundos;
+	}
+
+	/**
+	 * @return true si la última resolución terminó; si no, el resultado y la columna no son válidos
+	 */
+	public boolean isResuelto() {
+		return resuelto;
+	}
+
+	/**
+	 * @return la puntuación de la posición: casillas + 1 - m si el jugador al que le toca gana con su ficha número m,
+	 * lo mismo en negativo si pierde y 0 si es empate
+	 */
+	public int getPuntuacion() {
+		return puntuacion;
+	}
+
+	/**
+	 * @return TablaFinales.GANA, EMPATE o PIERDE para el jugador al que le toca
+	 */
+	public int getResultado() {
+		if (puntuacion > 0) {
+			return TablaFinales.GANA;
+		}
+		return puntuacion < 0 ? TablaFinales.PIERDE : TablaFinales.EMPATE;
+	}
+
+	/**
+	 * @return las jugadas que faltan para que alguien gane, contando la que gana, o hasta llenar el tablero si es
+	 * empate
+	 */
+	public int getDistancia() {
+		int restantes = casillas - bits.getNumFichas();
+		return puntuacion == 0 ? restantes : restantes + 1 - Math.abs(puntuacion);
+	}
+
+	public int getColumna() {
+		return columna;
+	}
+
+	/**
+	 * @return las posiciones visitadas en la última resolución
+	 */
+	public long getNodos() {
+		return nodos;
+	}
+
+	/**
+	 * @return el tiempo de la última resolución en milisegundos
+	 */
+	public long getTiempo() {
+		return tiempo / 1000000;
+	}
+
+	/**
+	 * @return los bytes que ocupa la tabla de transposición, que es casi toda la memoria que se usa
+	 */
+	public long getMemoria() {
+		return (long) tabla.getEntradas() * TablaTransposicion.BYTES_ENTRADA;
+	}
+
+	/**
+	 * @return JSON de la forma {resuelto:boolean, columna:int, resultado:int, distancia:int, nodos:long, tiempo:long,
+	 * memoria:long}, donde resultado es TablaFinales.GANA, EMPATE o PIERDE, tiempo va en milisegundos y memoria en
+	 * bytes
+	 */
+	public JSONObject toJSON() {
+		JSONObject json = new JSONObject();
+		json.put("resuelto", resuelto);
+		json.put("columna", columna);
+		if (resuelto) {
+			json.put("resultado", getResultado());
+			json.put("distancia", getDistancia());
+		}
+		json.put("nodos", nodos);
+		json.put("tiempo", getTiempo());
+		json.put("memoria", getMemoria());
+		return json;
+	}
+}
@@ -0,0 +1,408 @@
+package packModelo;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tabla de finales: el resultado exacto (gana, empata o pierde el jugador al que le toca) y las jugadas que faltan
+ * para acabar de las posiciones con pocas casillas libres, calculado de antemano. La búsqueda del modo experto la
+ * consulta en lugar de seguir bajando, así que juega los finales de forma perfecta.
+ * <p>
+ * Las posiciones se encuentran con una función hash perfecta de tipo hash-and-displace: la clave elige un cubo, y cada
+ * cubo guarda un desplazamiento que, mezclado con la clave, da una casilla distinta para cada posición del cubo. Así
+ * no hace falta guardar las claves, sólo una huella de 32 bits, sacada de otra mezcla de la clave, para descartar las
+ * posiciones que no están en la tabla: una posición ajena sólo se confunde con la de su casilla una vez de cada 2^32.
+ * Cada posición ocupa un int con la huella y un byte con el resultado:
+ * <ul>
+ * <li>bits 0-1: resultado (GANA, EMPATE o PIERDE), 0 si la casilla está vacía</li>
+ * <li>bits 2-7: jugadas hasta el final de la partida, contando la que gana</li>
+ * </ul>
+ * Como el libro de aperturas, el fichero se proyecta en memoria y se lee sin copiarlo. Todo va en big endian:
+ * cabecera de 32 bytes (MAGICO, VERSION, filas, columnas, enRaya, máximo de casillas libres, cubos y casillas, cada
+ * uno un int), un char de desplazamiento por cubo, un int de huella por casilla y un byte de resultado por casilla.
+ * <p>
+ * Cada posición se guarda con la menor de su clave y su clave espejo. El resultado y la distancia no cambian al
+ * reflejar el tablero, así que una posición y su simétrica comparten entrada y la tabla ocupa casi la mitad.
+ */
+public class TablaFinales {
+
+	public static final int GANA = 1;
+	public static final int EMPATE = 2;
+	public static final int PIERDE = 3;
+	/**
+	 * Fichero de la tabla que usa la aplicación si no se indica otro con la propiedad del sistema conecta4.finales.
+	 */
+	public static final String FICHERO_DEFECTO = "finales.bin";
+
+	/**
+	 * "C4TB" en ASCII.
+	 */
+	static final int MAGICO = 0x43345442;
+	/**
+	 * La versión 1 guardaba una huella de 24 bits y el resultado en el mismo int.
+	 */
+	static final int VERSION = 2;
+	static final int BYTES_CABECERA = 32;
+	/**
+	 * Posiciones por cubo y proporción de casillas ocupadas con las que se construye la función hash.
+	 */
+	private static final int POR_CUBO = 4;
+	private static final double OCUPACION = 0.85;
+
+	private static TablaFinales mTabla;
+	private static boolean mTablaBuscada;
+
+	private final MappedByteBuffer buffer;
+	private final int filas;
+	private final int columnas;
+	private final int enRaya;
+	private final int maxVacias;
+	private final int cubos;
+	private final int casillas;
+	private final int inicioHuellas;
+	private final int inicioResultados;
+
+	private TablaFinales(MappedByteBuffer pBuffer) throws IOException {
+		this.buffer = pBuffer;
+		if (pBuffer.capacity() < BYTES_CABECERA || pBuffer.getInt(0) != MAGICO) {
+			throw new IOException("El fichero no es una tabla de finales");
+		}
+		if (pBuffer.getInt(4) != VERSION) {
+			throw new IOException("Versión de tabla de finales no soportada: " + pBuffer.getInt(4));
+		}
+		this.filas = pBuffer.getInt(8);
+		this.columnas = pBuffer.getInt(12);
+		this.enRaya = pBuffer.getInt(16);
+		this.maxVacias = pBuffer.getInt(20);
+		this.cubos = pBuffer.getInt(24);
+		this.casillas = pBuffer.getInt(28);
+		this.inicioHuellas = BYTES_CABECERA + 2 * cubos;
+		this.inicioResultados = inicioHuellas + 4 * casillas;
+		if (cubos < 1 || casillas < 1 || (long) inicioHuellas + 5L * casillas != pBuffer.capacity()) {
+			throw new IOException("La tabla de finales está incompleta");
+		}
+	}
+
+	/**
+	 * Proyecta el fichero en memoria.
+	 *
+	 * @param pFichero el fichero de la tabla
+	 * @return la tabla
+	 * @throws IOException si no se puede leer o no es una tabla válida
+	 */
+	public static TablaFinales abrir(File pFichero) throws IOException {
+		try (RandomAccessFile fichero = new RandomAccessFile(pFichero, "r");
+			 FileChannel canal = fichero.getChannel()) {
+			if (canal.size() > Integer.MAX_VALUE) {
+				throw new IOException("La tabla de finales es demasiado grande: " + canal.size() + " bytes");
+			}
+			return new TablaFinales(canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size()));
+		}
+	}
+
+	/**
+	 * Abre una sola vez la tabla de la aplicación, que comparten todos los modos.
+	 *
+	 * @return la tabla, o null si no existe el fichero o no se puede abrir
+	 */
+	public static synchronized TablaFinales getmTabla() {
+		if (!mTablaBuscada) {
+			mTablaBuscada = true;
+			File fichero = new File(System.getProperty("conecta4.finales", FICHERO_DEFECTO));
+			if (fichero.isFile()) {
+				try {
+					mTabla = abrir(fichero);
+				} catch (IOException e) {
+					System.out.println(e);
+					System.out.println("No se ha podido abrir la tabla de finales " + fichero);
+				}
+			}
+		}
+		return mTabla;
+	}
+
+	/**
+	 * Calcula el resultado exacto de la posición y de todas las que se pueden alcanzar desde ella, recorriéndolas
+	 * todas. Las que ya estén en pResultados no se vuelven a calcular, así que se puede llamar con varias posiciones
+	 * de partida y, si el mapa es concurrente, desde varios hilos a la vez.
+	 * <p>
+	 * Pre: ningún jugador tiene línea y quedan como mucho 63 casillas libres
+	 *
+	 * @param pSemilla    la posición de partida, que no se modifica
+	 * @param pResultados clave canónica (ver claveCanonica) de cada posición y su resultado, codificado como en
+	 *                    codificar
+	 * @return el resultado de pSemilla para el jugador al que le toca
+	 */
+	public static int resolver(Tablero pSemilla, Map<Long, Integer> pResultados) {
+		return resolver(pSemilla.getBits().copiar(), pSemilla.getTurno(), pResultados);
+	}
+
+	private static int resolver(TableroBits pBits, boolean pColor, Map<Long, Integer> pResultados) {
+		long clave = claveCanonica(pBits);
+		Integer hecho = pResultados.get(clave);
+		if (hecho != null) {
+			return hecho;
+		}
+		int resultado = -1;
+		if (pBits.lleno()) {
+			resultado = codificar(EMPATE, 0);
+		} else if (pBits.columnasGanadoras(pColor) != 0) {
+			resultado = codificar(GANA, 1);
+		} else {
+			for (int c = 0; c < pBits.getColumnas(); c++) {
+				if (pBits.columnaLlena(c)) {
+					continue;
+				}
+				pBits.poner(c, pColor);
+				int hijo = resolver(pBits, !pColor, pResultados);
+				pBits.quitar(c);
+				int mio = codificar(GANA + PIERDE - getResultado(hijo), getDistancia(hijo) + 1);
+				if (resultado == -1 || mejor(mio, resultado)) {
+					resultado = mio;
+				}
+			}
+		}
+		pResultados.put(clave, resultado);
+		return resultado;
+	}
+
+	/**
+	 * @return si pA es mejor que pB para el jugador al que le toca: ganar cuanto antes, empatar o perder cuanto más
+	 * tarde
+	 */
+	private static boolean mejor(int pA, int pB) {
+		int ra = getResultado(pA);
+		int rb = getResultado(pB);
+		if (ra != rb) {
+			return ra < rb;
+		}
+		if (ra == GANA) {
+			return getDistancia(pA) < getDistancia(pB);
+		}
+		return getDistancia(pA) > getDistancia(pB);
+	}
+
+	/**
+	 * Construye la función hash perfecta de las posiciones y escribe la tabla.
+	 *
+	 * @param pFichero    el fichero en el que se escribe, que se sobrescribe si existe
+	 * @param pFilas      filas del tablero de las posiciones
+	 * @param pColumnas   columnas del tablero de las posiciones
+	 * @param pEnRaya     fichas seguidas que hacen falta para ganar
+	 * @param pMaxVacias  casillas libres de las posiciones con más huecos; con más no se consulta la tabla
+	 * @param pResultados clave canónica de cada posición y su resultado, codificado como en codificar, como los deja
+	 *                    resolver
+	 * @throws IOException si no se puede escribir
+	 */
+	public static void escribir(File pFichero, int pFilas, int pColumnas, int pEnRaya, int pMaxVacias,
+								Map<Long, Integer> pResultados) throws IOException {
+		if (pResultados.isEmpty()) {
+			throw new IllegalArgumentException("La tabla de finales no tiene posiciones");
+		}
+		if (pMaxVacias < 1 || pMaxVacias > 63) {
+			throw new IllegalArgumentException("Las distancias sólo caben hasta 63 casillas libres: " + pMaxVacias);
+		}
+		int cubos = (pResultados.size() + POR_CUBO - 1) / POR_CUBO;
+		int casillas = (int) Math.ceil(pResultados.size() / OCUPACION);
+		char[] desplazamientos = new char[cubos];
+		long[] entradas = null;
+		while (entradas == null) {
+			entradas = construir(pResultados, cubos, casillas, desplazamientos);
+			//SI ALGÚN CUBO NO CABE SE VUELVE A EMPEZAR CON MÁS CASILLAS
+			casillas += casillas / 10 + 1;
+		}
+		try (DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(pFichero)))) {
+			salida.writeInt(MAGICO);
+			salida.writeInt(VERSION);
+			salida.writeInt(pFilas);
+			salida.writeInt(pColumnas);
+			salida.writeInt(pEnRaya);
+			salida.writeInt(pMaxVacias);
+			salida.writeInt(cubos);
+			salida.writeInt(entradas.length);
+			for (char d : desplazamientos) {
+				salida.writeChar(d);
+			}
+			for (long entrada : entradas) {
+				salida.writeInt((int) (entrada >>> 8));
+			}
+			for (long entrada : entradas) {
+				salida.writeByte((int) entrada);
+			}
+		}
+	}
+
+	/**
+	 * Reparte las claves en cubos y, empezando por los más llenos, busca para cada uno el primer desplazamiento con el
+	 * que todas sus claves caen en casillas libres y distintas.
+	 *
+	 * @return las casillas de la tabla, cada una con el resultado en los 8 bits bajos y la huella en los 32
+	 * siguientes, o null si algún cubo no cabe con ningún desplazamiento
+	 */
+	private static long[] construir(Map<Long, Integer> pResultados, int pCubos, int pCasillas, char[] pDesplazamientos) {
+		List<List<Long>> porCubo = new ArrayList<>(pCubos);
+		for (int i = 0; i < pCubos; i++) {
+			porCubo.add(new ArrayList<>(POR_CUBO));
+		}
+		for (long clave : pResultados.keySet()) {
+			porCubo.get(cubo(clave, pCubos)).add(clave);
+		}
+		List<Integer> orden = new ArrayList<>(pCubos);
+		for (int i = 0; i < pCubos; i++) {
+			orden.add(i);
+		}
+		orden.sort((a, b) -> porCubo.get(b).size() - porCubo.get(a).size());
+		long[] entradas = new long[pCasillas];
+		int[] sitios = new int[0];
+		for (int i : orden) {
+			List<Long> claves = porCubo.get(i);
+			if (claves.isEmpty()) {
+				break;
+			}
+			if (sitios.length < claves.size()) {
+				sitios = new int[claves.size()];
+			}
+			int d = 0;
+			while (!probar(claves, d, pCasillas, entradas, sitios)) {
+				if (++d > Character.MAX_VALUE) {
+					return null;
+				}
+			}
+			pDesplazamientos[i] = (char) d;
+			for (int k = 0; k < claves.size(); k++) {
+				long clave = claves.get(k);
+				entradas[sitios[k]] = pResultados.get(clave) | (huella(clave) & 0xFFFFFFFFL) << 8;
+			}
+		}
+		return entradas;
+	}
+
+	/**
+	 * @return true si con el desplazamiento todas las claves caen en casillas libres y distintas, que quedan en pSitios
+	 */
+	private static boolean probar(List<Long> pClaves, int pDesplazamiento, int pCasillas, long[] pEntradas,
+								  int[] pSitios) {
+		for (int k = 0; k < pClaves.size(); k++) {
+			int sitio = casilla(pClaves.get(k), pDesplazamiento, pCasillas);
+			if (pEntradas[sitio] != 0) {
+				return false;
+			}
+			for (int j = 0; j < k; j++) {
+				if (pSitios[j] == sitio) {
+					return false;
+				}
+			}
+			pSitios[k] = sitio;
+		}
+		return true;
+	}
+
+	/**
+	 * Busca la posición en la tabla. Sólo usa lecturas absolutas del buffer, así que se puede llamar desde varios
+	 * hilos a la vez.
+	 *
+	 * @param pClave la clave canónica de la posición
+	 * @return el resultado codificado como en codificar, -1 si la posición no está
+	 */
+	int consultar(long pClave) {
+		int d = buffer.getChar(BYTES_CABECERA + 2 * cubo(pClave, cubos));
+		int sitio = casilla(pClave, d, casillas);
+		int resultado = buffer.get(inicioResultados + sitio) & 0xFF;
+		if (getResultado(resultado) == 0 || buffer.getInt(inicioHuellas + 4 * sitio) != huella(pClave)) {
+			return -1;
+		}
+		return resultado;
+	}
+
+	/**
+	 * Consulta el resultado del jugador al que le toca en el tablero.
+	 *
+	 * @param pTablero la posición
+	 * @return el resultado codificado como en codificar, -1 si la posición no está
+	 */
+	public int consultar(Tablero pTablero) {
+		if (!sirve(pTablero.getBits())) {
+			return -1;
+		}
+		return consultar(pTablero.getBits());
+	}
+
+	/**
+	 * Pre: la tabla sirve para el núcleo
+	 *
+	 * @param pBits el núcleo con la posición
+	 * @return el resultado del jugador al que le toca codificado como en codificar, -1 si la posición no está
+	 */
+	int consultar(TableroBits pBits) {
+		return consultar(claveCanonica(pBits));
+	}
+
+	/**
+	 * @return la clave con la que se guarda la posición, la menor de la suya y la de su reflejo
+	 */
+	static long claveCanonica(TableroBits pBits) {
+		return Math.min(pBits.getClave(), pBits.getClaveEspejo());
+	}
+
+	/**
+	 * @return true si la tabla es de un tablero con las dimensiones del núcleo
+	 */
+	boolean sirve(TableroBits pBits) {
+		return pBits.getFilas() == filas && pBits.getColumnas() == columnas && pBits.getEnRaya() == enRaya;
+	}
+
+	/**
+	 * Mezcla de los bits de la clave (el final de SplitMix64) para que las claves se repartan bien.
+	 */
+	private static long mezclar(long pX) {
+		pX = (pX ^ pX >>> 30) * 0xBF58476D1CE4E5B9L;
+		pX = (pX ^ pX >>> 27) * 0x94D049BB133111EBL;
+		return pX ^ pX >>> 31;
+	}
+
+	private static int cubo(long pClave, int pCubos) {
+		return (int) ((mezclar(pClave) >>> 32) * pCubos >>> 32);
+	}
+
+	private static int casilla(long pClave, int pDesplazamiento, int pCasillas) {
+		return (int) ((mezclar(pClave + pDesplazamiento * 0x9E3779B97F4A7C15L) & 0xFFFFFFFFL) * pCasillas >>> 32);
+	}
+
+	private static int huella(long pClave) {
+		return (int) (mezclar(~pClave) >>> 32);
+	}
+
+	/**
+	 * @param pResultado  GANA, EMPATE o PIERDE
+	 * @param pDistancia  jugadas hasta el final de la partida, contando la que gana, de 0 a 63
+	 * @return el resultado codificado en 8 bits
+	 */
+	public static int codificar(int pResultado, int pDistancia) {
+		return pResultado | pDistancia << 2;
+	}
+
+	public static int getResultado(int pCodigo) {
+		return pCodigo & 0x3;
+	}
+
+	public static int getDistancia(int pCodigo) {
+		return (pCodigo >>> 2) & 0x3F;
+	}
+
+	public int getMaxVacias() {
+		return maxVacias;
+	}
+
+	public int getCasillas() {
+		return casillas;
+	}
+}
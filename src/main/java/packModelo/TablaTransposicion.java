@@ -0,0 +1,198 @@
+package packModelo;
+
+/**
+ * Tabla de transposición de la búsqueda: guarda lo que ya se sabe de cada posición para no volver a buscarla cuando
+ * se llega a ella por otro orden de jugadas.
+ * <p>
+ * Son dos long[] del mismo tamaño, una potencia de dos: en claves la clave de la posición y en datos la entrada
+ * empaquetada en un único long. Cada clave puede ir en su casilla o en la siguiente; si las dos están ocupadas por
+ * otras posiciones se sustituye la de menos profundidad, salvo que sea de una búsqueda anterior, que siempre se puede
+ * sustituir. Los datos de una entrada son, de menor a mayor peso:
+ * <ul>
+ * <li>bits 0-31: valor de la posición</li>
+ * <li>bits 32-39: profundidad con la que se buscó</li>
+ * <li>bits 40-41: tipo de cota (EXACTO, INFERIOR o SUPERIOR)</li>
+ * <li>bits 42-49: mejor columna más uno, 0 si no se conoce</li>
+ * <li>bits 50-57: edad, el número de la búsqueda que la guardó</li>
+ * </ul>
+ * Una entrada nunca vale 0 porque el tipo de cota nunca es 0, así que datos[i] == 0 indica una casilla vacía.
+ * <p>
+ * Varios hilos pueden usar la tabla a la vez sin bloqueos. En claves no se guarda la clave sino clave ^ datos: si dos
+ * hilos escriben la misma casilla a la vez y se mezclan la clave de uno y los datos de otro, el XOR ya no coincide con
+ * la clave buscada y la entrada simplemente no se encuentra. Los contadores no se sincronizan, así que con varios
+ * hilos son aproximados.
+ */
+class TablaTransposicion {
+
+	static final int EXACTO = 1;
+	/**
+	 * El valor real es mayor o igual que el guardado (hubo poda beta).
+	 */
+	static final int INFERIOR = 2;
+	/**
+	 * El valor real es menor o igual que el guardado (ninguna jugada superó alfa).
+	 */
+	static final int SUPERIOR = 3;
+
+	/**
+	 * Bytes de cada entrada: un long de clave y otro de datos.
+	 */
+	static final int BYTES_ENTRADA = 16;
+
+	private final long[] claves;
+	private final long[] datos;
+	private final int mascara;
+	private volatile int edad;
+
+	private long consultas;
+	private long aciertos;
+	private long colisiones;
+
+	/**
+	 * @param pMegas tamaño de la tabla en MB. Se redondea hacia abajo a una potencia de dos de entradas
+	 */
+	TablaTransposicion(int pMegas) {
+		if (pMegas < 1 || pMegas > 1024) {
+			throw new IllegalArgumentException("Tamaño de tabla no válido: " + pMegas + " MB");
+		}
+		int entradas = Integer.highestOneBit((int) ((long) pMegas * 1024 * 1024 / BYTES_ENTRADA));
+		this.claves = new long[entradas];
+		this.datos = new long[entradas];
+		this.mascara = entradas - 1;
+	}
+
+	/**
+	 * Busca la posición en la tabla.
+	 *
+	 * @param pClave la clave de la posición
+	 * @return los datos empaquetados de la entrada, 0 si la posición no está
+	 */
+	long consultar(long pClave) {
+		consultas++;
+		int i = indice(pClave);
+		for (int n = 0; n < 2; n++) {
+			int j = (i + n) & mascara;
+			long dato = datos[j];
+			if (dato != 0 && (claves[j] ^ dato) == pClave) {
+				aciertos++;
+				return dato;
+			}
+		}
+		return 0L;
+	}
+
+	/**
+	 * Guarda lo que se ha averiguado de una posición.
+	 *
+	 * @param pClave       la clave de la posición
+	 * @param pValor       el valor encontrado
+	 * @param pProfundidad la profundidad con la que se ha buscado
+	 * @param pTipo        EXACTO, INFERIOR o SUPERIOR
+	 * @param pColumna     la mejor columna encontrada, -1 si no hay
+	 */
+	void guardar(long pClave, int pValor, int pProfundidad, int pTipo, int pColumna) {
+		int i = indice(pClave);
+		int j = (i + 1) & mascara;
+		int sitio;
+		long datoI = datos[i];
+		long datoJ = datos[j];
+		if (datoI == 0 || (claves[i] ^ datoI) == pClave) {
+			sitio = i;
+		} else if (datoJ == 0 || (claves[j] ^ datoJ) == pClave) {
+			sitio = j;
+		} else {
+			colisiones++;
+			sitio = prioridad(datoI) <= prioridad(datoJ) ? i : j;
+			long victima = sitio == i ? datoI : datoJ;
+			if (getEdad(victima) == edad && getProfundidad(victima) > pProfundidad) {
+				return;
+			}
+		}
+		long dato = empaquetar(pValor, pProfundidad, pTipo, pColumna, edad);
+		claves[sitio] = pClave ^ dato;
+		datos[sitio] = dato;
+	}
+
+	/**
+	 * Marca el comienzo de una búsqueda nueva. Las entradas guardadas hasta ahora siguen sirviendo, pero ya se pueden
+	 * sustituir aunque sean más profundas.
+	 */
+	void nuevaBusqueda() {
+		edad = (edad + 1) & 0xFF;
+	}
+
+	/**
+	 * Vacía la tabla y pone los contadores a 0.
+	 */
+	void limpiar() {
+		for (int i = 0; i < datos.length; i++) {
+			claves[i] = 0L;
+			datos[i] = 0L;
+		}
+		consultas = 0;
+		aciertos = 0;
+		colisiones = 0;
+	}
+
+	/**
+	 * Las entradas de búsquedas anteriores tienen prioridad -1 para que se sustituyan antes que cualquier otra.
+	 */
+	private int prioridad(long pDatos) {
+		return getEdad(pDatos) == edad ? getProfundidad(pDatos) : -1;
+	}
+
+	/**
+	 * Mezcla los bits de la clave antes de quedarse con los bajos, para que dos claves parecidas no caigan juntas.
+	 */
+	int indice(long pClave) {
+		long h = pClave * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ h >>> 32) & mascara;
+	}
+
+	static long empaquetar(int pValor, int pProfundidad, int pTipo, int pColumna, int pEdad) {
+		return (pValor & 0xFFFFFFFFL) | (long) (pProfundidad & 0xFF) << 32 | (long) pTipo << 40
+				| (long) ((pColumna + 1) & 0xFF) << 42 | (long) (pEdad & 0xFF) << 50;
+	}
+
+	static int getValor(long pDatos) {
+		return (int) pDatos;
+	}
+
+	static int getProfundidad(long pDatos) {
+		return (int) (pDatos >>> 32) & 0xFF;
+	}
+
+	static int getTipo(long pDatos) {
+		return (int) (pDatos >>> 40) & 0x3;
+	}
+
+	/**
+	 * @return la mejor columna guardada, -1 si no hay
+	 */
+	static int getColumna(long pDatos) {
+		return ((int) (pDatos >>> 42) & 0xFF) - 1;
+	}
+
+	static int getEdad(long pDatos) {
+		return (int) (pDatos >>> 50) & 0xFF;
+	}
+
+	int getEntradas() {
+		return datos.length;
+	}
+
+	long getConsultas() {
+		return consultas;
+	}
+
+	long getAciertos() {
+		return aciertos;
+	}
+
+	/**
+	 * @return las veces que al guardar las dos casillas de la clave estaban ocupadas por otras posiciones
+	 */
+	long getColisiones() {
+		return colisiones;
+	}
+}
@@ -10,30 +10,63 @@ import java.util.Observable;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
- * Se encarga de toda la lógica del juego, almacena una matriz con todas las posiciones del tablero y en cada posición una ficha.
+ * Se encarga de toda la lógica del juego, almacena las fichas de cada jugador como una máscara de bits sobre todas las
+ * posiciones del tablero. El número de filas, de columnas y de fichas seguidas para ganar se elige al crearlo.
  */
 
 public class Tablero extends Observable {
 
 	/**
-	 * Atributo estático para el patrón singleton.
+	 * Tablero por defecto, el que usa la partida de la interfaz. Cada Juego puede tener además su propio tablero.
 	 */
 	private static Tablero mTablero;
 	/**
-	 * La matriz representa el tablero, es de tipo booleano de modo que true será rojo, false azul y null que la posición está vacía
+	 * Número de filas y columnas del tablero y fichas seguidas para ganar si no se indica otra cosa.
 	 */
-	private Boolean[][] matriz;
+	public static final int FILAS = 6;
+	public static final int COLUMNAS = 9;
+	public static final int EN_RAYA = 4;
+	/**
+	 * Las fichas del tablero, guardadas como una máscara de bits por jugador de modo que true será rojo y false azul.
+	 */
+	private final TableroBits bits;
+	/**
+	 * Columnas en las que se han introducido las fichas, en orden, para poder deshacerlas. Nunca hay más fichas que
+	 * casillas, así que basta con un array de ese tamaño.
+	 */
+	private final int[] jugadas;
+	private int numJugadas;
+
+	public Tablero() {
+		this(FILAS, COLUMNAS, EN_RAYA);
+	}
 
-	private Tablero() {
+	/**
+	 * Crea un tablero vacío con las dimensiones dadas.
+	 *
+	 * @param pFilas    número de filas
+	 * @param pColumnas número de columnas
+	 * @param pEnRaya   número de fichas seguidas que hacen falta para ganar
+	 */
+	public Tablero(int pFilas, int pColumnas, int pEnRaya) {
+		bits = TableroBits.crear(pFilas, pColumnas, pEnRaya);
+		jugadas = new int[pFilas * pColumnas];
 	}
 
-	public static Tablero getmTablero() {
+	public static synchronized Tablero getmTablero() {
 		if (mTablero == null) {
 			mTablero = new Tablero();
 		}
 		return mTablero;
 	}
 
+	/**
+	 * @return el núcleo de bits del tablero, para el código del modelo que necesita trabajar directamente con él
+	 */
+	TableroBits getBits() {
+		return bits;
+	}
+
 	/**
 	 * Pre: recibe como parámetro una columna y un jugador
 	 * Post: introduce la ficha en la columna indicada en caso de que sea posible. Devuelve un json con la siguiente
@@ -45,45 +78,108 @@ public class Tablero extends Observable {
 	 * @author Nuria Lebeña
 	 */
 	public JSONObject introducirFicha(int pColumna, boolean pJugador) {
-		boolean ocupada = true;
+		int fila = colocarFicha(pColumna, pJugador);
+		if (fila == -1) {
+			return null;
+		}
 		JSONObject json = new JSONObject();
-		if (!ocupada(pColumna)) {
-			json = anadirFicha(pColumna, pJugador);
-			ocupada = false;
+		json.put("fila", fila);
+		json.put("columna", pColumna);
+		json.put("lleno", tableroLleno());
+		return json;
+	}
+
+	/**
+	 * Pre: recibe como parámetro una columna y un jugador
+	 * Post: introduce la ficha en la columna indicada en caso de que sea posible y se lo notifica a la interfaz.
+	 *
+	 * @param pColumna la columna en la que se va a introducir la ficha
+	 * @param pJugador el color de la ficha
+	 * @return la fila en la que ha quedado la ficha, -1 si la columna está llena
+	 */
+	public int colocarFicha(int pColumna, boolean pJugador) {
+		if (ocupada(pColumna)) {
+			return -1;
 		}
-		boolean lleno = tableroLleno();
-		if (ocupada) {
-			return null;
-		} else {
-			//SE NOTIFICARÁ A LA INTERFAZ LA X E Y EN LA QUE SE HA INTRODUCIDO
+		int fila = bits.poner(pColumna, pJugador);
+		jugadas[numJugadas++] = pColumna;
+		//SE NOTIFICARÁ A LA INTERFAZ LA X E Y EN LA QUE SE HA INTRODUCIDO
+		if (countObservers() > 0) {
+			JSONObject json = new JSONObject();
+			json.put("fila", fila);
+			json.put("columna", pColumna);
 			this.setChanged();
 			notifyObservers(json);
-			json.put("lleno", lleno);
-			return json;
 		}
+		return fila;
 	}
 
 	/**
-	 * Pre: recibe como parámetro una columna y el indicador de un jugador. Es posible introducir la ficha
-	 * Post: introduce la ficha en la columna indicada en caso de que sea posible. Devuelve un json con la siguiente
-	 * forma: JSON{x:int,y:int}
+	 * Introduce la ficha del jugador al que le toca sin avisar a la interfaz ni crear ningún JSON, para que la
+	 * búsqueda pueda probar jugadas sobre el tablero y deshacerlas después con deshacer.
 	 *
-	 * @param pColumna la columna en la que se va a introducir la ficha
-	 * @param pJugador el color de la ficha
-	 * @author Nuria Lebeña
+	 * @param pColumna la columna en la que se introduce la ficha
+	 * @return la fila en la que ha quedado la ficha, -1 si la columna está llena
 	 */
-	private JSONObject anadirFicha(int pColumna, boolean pJugador) {
-		int i = 0;
-		Boolean pos = matriz[i][pColumna];
-		while (pos != null) {
-			i++;
-			pos = matriz[i][pColumna];
+	public int jugarSilencioso(int pColumna) {
+		if (bits.columnaLlena(pColumna)) {
+			return -1;
 		}
-		matriz[i][pColumna] = pJugador;
-		JSONObject json = new JSONObject();
-		json.put("fila", i);
-		json.put("columna", pColumna);
-		return json;
+		int fila = bits.poner(pColumna, getTurno());
+		jugadas[numJugadas++] = pColumna;
+		return fila;
+	}
+
+	/**
+	 * Quita la última ficha introducida, ya sea con introducirFicha, colocarFicha o jugarSilencioso, y deja la clave
+	 * de la posición como estaba antes de introducirla. No se notifica a la interfaz.
+	 *
+	 * @return la columna de la que se ha quitado la ficha, -1 si el tablero está vacío
+	 */
+	public int deshacer() {
+		if (numJugadas == 0) {
+			return -1;
+		}
+		int columna = jugadas[--numJugadas];
+		bits.quitar(columna);
+		return columna;
+	}
+
+	/**
+	 * Empiezan las rojas y después le toca al color contrario al de la última ficha introducida.
+	 *
+	 * @return true si le toca al jugador rojo, false si le toca al azul
+	 */
+	public boolean getTurno() {
+		if (numJugadas == 0) {
+			return true;
+		}
+		int columna = jugadas[numJugadas - 1];
+		return !bits.esColor(bits.getAltura(columna) - 1, columna, true);
+	}
+
+	/**
+	 * @return el número de fichas que se pueden deshacer
+	 */
+	public int getNumJugadas() {
+		return numJugadas;
+	}
+
+	/**
+	 * La clave se actualiza con cada ficha que se introduce o se quita, así que obtenerla no cuesta nada. Dos
+	 * posiciones iguales tienen la misma clave sea cual sea el orden en el que se jugaron.
+	 *
+	 * @return la clave Zobrist de 64 bits de la posición actual
+	 */
+	public long getClave() {
+		return bits.getClave();
+	}
+
+	/**
+	 * @return la clave de la posición reflejada de izquierda a derecha
+	 */
+	public long getClaveEspejo() {
+		return bits.getClaveEspejo();
 	}
 
 	/**
@@ -94,16 +190,7 @@ public class Tablero extends Observable {
 	 * @author Nuria Lebeña
 	 */
 	public boolean ocupada(int pColumna) {
-		int i = 0;
-		boolean ocupada = true;
-		while (i < matriz.length && ocupada) {
-			Boolean pos = matriz[i][pColumna];
-			if (pos == null) {
-				ocupada = false;
-			}
-			i = i + 1;
-		}
-		return ocupada;
+		return bits.columnaLlena(pColumna);
 	}
 
 	/**
@@ -116,9 +203,8 @@ public class Tablero extends Observable {
 	 * @return JSONObject de la forma ..... si el jugador ha ganado, null si no ha ganado
 	 */
 	public JSONArray haGanado(int pFila, int pColumna, boolean pColor) {
-		int colindantes = getColindantes(pFila, pColumna, pColor);
 		JSONArray json;
-		if (colindantes == 3) {
+		if (bits.formaLinea(pFila, pColumna, pColor)) {
 			json = getCoordenadasGanadoras(pFila, pColumna, pColor);
 		} else {
 			json = null;
@@ -136,10 +222,7 @@ public class Tablero extends Observable {
 	 * @author Ander Cejudo
 	 */
 	public boolean esColor(int pFila, int pColumna, boolean pColor) {
-		if (posValida(pFila, pColumna) && matriz[pFila][pColumna] != null) {
-			return matriz[pFila][pColumna] == pColor;
-		}
-		return false;
+		return posValida(pFila, pColumna) && bits.esColor(pFila, pColumna, pColor);
 	}
 
 	/**
@@ -151,7 +234,7 @@ public class Tablero extends Observable {
 	 */
 	public boolean posValida(int pFila, int pColumna) {
 		boolean valida = false;
-		if (pFila >= 0 && pFila < matriz.length && pColumna >= 0 && pColumna < matriz[0].length) {
+		if (pFila >= 0 && pFila < bits.getFilas() && pColumna >= 0 && pColumna < bits.getColumnas()) {
 			valida = true;
 		}
 		return valida;
@@ -163,12 +246,8 @@ public class Tablero extends Observable {
 	 * @author Nuria Lebeña
 	 */
 	public void inicializarTablero() {
-		matriz = new Boolean[6][9];
-		for (int x = 0; x < matriz.length; x++) {
-			for (int y = 0; y < matriz[0].length; y++) {
-				matriz[x][y] = null;
-			}
-		}
+		bits.vaciar();
+		numJugadas = 0;
 	}
 
 
@@ -195,8 +274,8 @@ public class Tablero extends Observable {
 				max = colindantes;
 			}
 		}
-		if (max > 3) {
-			max = 3;
+		if (max > bits.getEnRaya() - 1) {
+			max = bits.getEnRaya() - 1;
 		}
 		return max;
 	}
@@ -209,29 +288,19 @@ public class Tablero extends Observable {
 	 * @author Igor García
 	 */
 	public int[] getPosicionesPosibles() {
-		int[] posiciones = new int[matriz[0].length];
-		for (int col = 0; col < matriz[0].length; col++) {
-			posiciones[col] = -1;
-			for (int fila = 0; fila < matriz.length; fila++) {
-				if (matriz[fila][col] == null) {
-					posiciones[col] = fila;
-					break;
-				}
+		int[] posiciones = new int[bits.getColumnas()];
+		for (int col = 0; col < posiciones.length; col++) {
+			if (bits.columnaLlena(col)) {
+				posiciones[col] = -1;
+			} else {
+				posiciones[col] = bits.getAltura(col);
 			}
 		}
 		return posiciones;
 	}
 
 	public boolean tableroLleno() {
-		boolean lleno = true;
-		for (int i = 0; i < matriz[1].length; i++) {
-			Boolean pos = matriz[matriz.length - 1][i];
-			if (pos == null) {
-				lleno = false;
-				return false;
-			}
-		}
-		return true;
+		return bits.lleno();
 	}
 
 	/**
@@ -302,48 +371,67 @@ public class Tablero extends Observable {
 	 * @param pFila    valor del eje x de la coordenada.
 	 * @param pColumna valor del eje y de la coordenada.
 	 * @param pColor   color de la posición a mirar.
-	 * @return JSON con las posiciones ganadoras y en caso de que no es hayan encontrado, null.
+	 * @return JSON con las posiciones ganadoras y en caso de que no es hayan encontrado, vacío.
 	 * @author Ander Cejudo
 	 */
 	public JSONArray getCoordenadasGanadoras(int pFila, int pColumna, boolean pColor) {
-		Collection<int[]> combinaciones = getPosiblesCombinaciones();
-		JSONArray j = new JSONArray();
-		ArrayList<int[]> coordenadas = new ArrayList<>(), coordenadas_inversas = new ArrayList<>();
-		boolean obtenidas = false;
-		for (int[] c : combinaciones) {
-			coordenadas = listaSeguidas(pFila, pColumna, 0, new ArrayList<>(), c, pColor);
-			if (coordenadas.size() != 4) {
-				c[0] *= -1;
-				c[1] *= -1;
-				coordenadas_inversas = listaSeguidas(pFila, pColumna, 0, new ArrayList<>(), c, pColor);
-				if (coordenadas_inversas.size() > 0) {
-					coordenadas_inversas.remove(0);
-				}
-			}
-			coordenadas.addAll(coordenadas_inversas);
-			if (coordenadas.size() >= 4) {
-				obtenidas = true;
-				break;
-			}
+		return getCoordenadas(getLineaGanadora(pFila, pColumna, pColor));
+	}
+
+	/**
+	 * Obtiene la línea ganadora que pasa por la posición dada sin crear ningún objeto.
+	 *
+	 * @param pFila    fila de la última ficha introducida
+	 * @param pColumna columna de la última ficha introducida
+	 * @param pColor   color de la ficha
+	 * @return la línea ganadora (casilla inicial, dirección y número de fichas) codificada en un long, 0 si no hay
+	 * cuatro en raya
+	 */
+	public long getLineaGanadora(int pFila, int pColumna, boolean pColor) {
+		if (!posValida(pFila, pColumna)) {
+			return 0L;
 		}
-		if (obtenidas) {
-			for (int[] c : coordenadas) {
+		return bits.lineaGanadora(pFila, pColumna, pColor);
+	}
+
+	/**
+	 * Convierte una línea ganadora en la lista de coordenadas que usa la interfaz.
+	 *
+	 * @param pLinea línea devuelta por getLineaGanadora
+	 * @return JSON de la forma [{x:fila, y:columna}, ...], vacío si pLinea es 0
+	 */
+	public JSONArray getCoordenadas(long pLinea) {
+		JSONArray j = new JSONArray();
+		if (pLinea != 0) {
+			for (int i = 0; i < TableroBits.getLongitudLinea(pLinea); i++) {
 				JSONObject o = new JSONObject();
-				o.put("x", c[0]);
-				o.put("y", c[1]);
+				o.put("x", TableroBits.getFilaLinea(pLinea, i));
+				o.put("y", TableroBits.getColumnaLinea(pLinea, i));
 				j.add(o);
 			}
 		}
 		return j;
 	}
 
+	public int getFilas() {
+		return bits.getFilas();
+	}
+
+	public int getColumnas() {
+		return bits.getColumnas();
+	}
+
+	public int getEnRaya() {
+		return bits.getEnRaya();
+	}
+
 	/**
-	 * Método recursivo para obtener las coordenadas de hasta 4 fichas seguidas del mismo color, las coordenadas recibidas
-	 * se aumentan con los valores de pCombinación en cada llamada recursiva.
+	 * Obtiene las coordenadas de hasta 4 fichas seguidas del mismo color, las coordenadas recibidas se aumentan con
+	 * los valores de pCombinación en cada paso.
 	 *
 	 * @param pFila        Coordenada del eje X.
 	 * @param pColumna     Coordenada del eje Y.
-	 * @param pCont        Contador de las veces que se ha llamado al método de forma recursiva.
+	 * @param pCont        Número de coordenadas que ya se han recorrido.
 	 * @param pC           Lista de las coordenadas del mismo color seguidas.
 	 * @param pCombinacion Combinación que hace variar las coordenadas pFila y pColumna.
 	 * @param pColor       Color que tienen que tener las fichas en cada coordenada.
@@ -351,10 +439,11 @@ public class Tablero extends Observable {
 	 * @author Ander Cejudo
 	 */
 	public ArrayList<int[]> listaSeguidas(int pFila, int pColumna, int pCont, ArrayList<int[]> pC, int[] pCombinacion, boolean pColor) {
-		if (posValida(pFila, pColumna) && esColor(pFila, pColumna, pColor) && pCont < 4) {
-			int[] coordenada = {pFila, pColumna};
-			pC.add(coordenada);
-			listaSeguidas(pFila + pCombinacion[0], pColumna + pCombinacion[1], pCont + 1, pC, pCombinacion, pColor);
+		while (pCont < bits.getEnRaya() && esColor(pFila, pColumna, pColor)) {
+			pC.add(new int[]{pFila, pColumna});
+			pFila += pCombinacion[0];
+			pColumna += pCombinacion[1];
+			pCont++;
 		}
 		return pC;
 	}
@@ -0,0 +1,466 @@
+package packModelo;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Núcleo primitivo del tablero. La casilla (fila, columna) es la casilla número columna * filas + fila y cada
+ * implementación guarda las fichas de cada jugador como un conjunto de bits sobre esas casillas. Se lleva la altura
+ * de cada columna para que introducir una ficha, saber si una columna está llena o si el tablero está lleno cueste
+ * tiempo constante.
+ * <p>
+ * Los tableros que caben en 64 casillas usan TableroBitsLong, con un único long por jugador; los más grandes usan
+ * TableroBitsArray, con un long[] por jugador.
+ * <p>
+ * También se lleva la clave Zobrist de la posición: el XOR de un número aleatorio fijo por cada casilla y color
+ * ocupados, que poner y quitar actualizan con un solo XOR. A la vez se lleva la clave del tablero reflejado de
+ * izquierda a derecha, de modo que dos posiciones simétricas tienen la clave de una igual a la clave espejo de la
+ * otra.
+ * <p>
+ * Al crearlo se calculan todas las líneas de enRaya casillas que caben en el tablero y a qué líneas pertenece cada
+ * casilla, que es lo que usa la valoración de posiciones de la búsqueda.
+ */
+abstract class TableroBits {
+
+	/**
+	 * Direcciones en las que se puede formar una línea como {fila, columna}: vertical, horizontal y las dos diagonales.
+	 */
+	static final int[][] DIRECCIONES = {{1, 0}, {0, 1}, {1, 1}, {-1, 1}};
+	/**
+	 * Semilla de los números Zobrist. Es fija para que la misma posición tenga siempre la misma clave y las claves
+	 * se puedan guardar en disco.
+	 */
+	private static final long SEMILLA_ZOBRIST = 0x436F6E6563746134L;
+	/**
+	 * Lo que vale cada amenaza en la valoración: en una fila de la paridad que favorece al jugador, en otra fila, y lo
+	 * que se suma si además tiene otra amenaza justo debajo, en la misma columna.
+	 */
+	static final int PESO_AMENAZA_BUENA = 128;
+	static final int PESO_AMENAZA = 16;
+	static final int PESO_AMENAZA_DOBLE = 512;
+
+	protected final int filas;
+	protected final int columnas;
+	/**
+	 * Número de fichas seguidas que hacen falta para ganar.
+	 */
+	protected final int enRaya;
+	/**
+	 * Número de fichas que hay en cada columna, es decir, la fila en la que caerá la siguiente.
+	 */
+	protected final int[] altura;
+	protected int numFichas;
+	/**
+	 * Número Zobrist de cada casilla para las rojas y las azules.
+	 */
+	private final long[] zobristRojas;
+	private final long[] zobristAzules;
+	private long clave;
+	private long claveEspejo;
+	/**
+	 * Casillas de todas las líneas posibles: las de la línea i son casillasLineas[i * enRaya] a
+	 * casillasLineas[(i + 1) * enRaya - 1]. lineasDeCasilla[c] son los números de las líneas que pasan por la casilla
+	 * c, y pesosLinea[k] lo que vale una línea abierta con k fichas de un jugador y ninguna del rival.
+	 */
+	protected final int numLineas;
+	protected final int[] casillasLineas;
+	protected final int[][] lineasDeCasilla;
+	protected final int[] pesosLinea;
+
+	protected TableroBits(int pFilas, int pColumnas, int pEnRaya) {
+		this.filas = pFilas;
+		this.columnas = pColumnas;
+		this.enRaya = pEnRaya;
+		this.altura = new int[pColumnas];
+		this.zobristRojas = new long[pFilas * pColumnas];
+		this.zobristAzules = new long[pFilas * pColumnas];
+		//SE RECORRE POR (COLUMNA, FILA) PARA QUE UNA CASILLA TENGA EL MISMO NÚMERO EN TABLEROS CON MÁS COLUMNAS
+		Random r = new Random(SEMILLA_ZOBRIST ^ (long) pFilas << 32);
+		for (int i = 0; i < zobristRojas.length; i++) {
+			zobristRojas[i] = r.nextLong();
+			zobristAzules[i] = r.nextLong();
+		}
+		int lineas = 0;
+		int[] porCasilla = new int[pFilas * pColumnas];
+		int[] casillas = new int[DIRECCIONES.length * pFilas * pColumnas * pEnRaya];
+		for (int[] d : DIRECCIONES) {
+			for (int c = 0; c < pColumnas; c++) {
+				for (int f = 0; f < pFilas; f++) {
+					if (dentro(f + d[0] * (pEnRaya - 1), c + d[1] * (pEnRaya - 1))) {
+						for (int i = 0; i < pEnRaya; i++) {
+							int casilla = (c + d[1] * i) * pFilas + f + d[0] * i;
+							casillas[lineas * pEnRaya + i] = casilla;
+							porCasilla[casilla]++;
+						}
+						lineas++;
+					}
+				}
+			}
+		}
+		this.numLineas = lineas;
+		this.casillasLineas = Arrays.copyOf(casillas, lineas * pEnRaya);
+		this.lineasDeCasilla = new int[pFilas * pColumnas][];
+		for (int i = 0; i < porCasilla.length; i++) {
+			lineasDeCasilla[i] = new int[porCasilla[i]];
+			porCasilla[i] = 0;
+		}
+		for (int l = 0; l < numLineas; l++) {
+			for (int i = 0; i < pEnRaya; i++) {
+				int casilla = casillasLineas[l * pEnRaya + i];
+				lineasDeCasilla[casilla][porCasilla[casilla]++] = l;
+			}
+		}
+		//SÓLO PUNTÚAN LAS LÍNEAS CON DOS FICHAS O MÁS SIN COMPLETAR, Y CADA FICHA MÁS VALE OCHO VECES MÁS
+		this.pesosLinea = new int[pEnRaya + 1];
+		for (int k = 2; k < pEnRaya; k++) {
+			pesosLinea[k] = 1 << Math.min(3 * (k - 1), 20);
+		}
+	}
+
+	/**
+	 * Copia la posición de pOriginal, compartiendo con él los números Zobrist, que nunca cambian.
+	 */
+	protected TableroBits(TableroBits pOriginal) {
+		this.filas = pOriginal.filas;
+		this.columnas = pOriginal.columnas;
+		this.enRaya = pOriginal.enRaya;
+		this.altura = pOriginal.altura.clone();
+		this.numFichas = pOriginal.numFichas;
+		this.zobristRojas = pOriginal.zobristRojas;
+		this.zobristAzules = pOriginal.zobristAzules;
+		this.clave = pOriginal.clave;
+		this.claveEspejo = pOriginal.claveEspejo;
+		this.numLineas = pOriginal.numLineas;
+		this.casillasLineas = pOriginal.casillasLineas;
+		this.lineasDeCasilla = pOriginal.lineasDeCasilla;
+		this.pesosLinea = pOriginal.pesosLinea;
+	}
+
+	/**
+	 * Crea el núcleo más rápido para las dimensiones dadas.
+	 *
+	 * @param pFilas    número de filas
+	 * @param pColumnas número de columnas, como mucho 64 para que las columnas quepan en una máscara long
+	 * @param pEnRaya   número de fichas seguidas que hacen falta para ganar
+	 * @return un TableroBitsLong si el tablero cabe en un long, un TableroBitsArray si no
+	 */
+	static TableroBits crear(int pFilas, int pColumnas, int pEnRaya) {
+		if (pFilas < 1 || pColumnas < 1 || pColumnas > Long.SIZE || pEnRaya < 1) {
+			throw new IllegalArgumentException("Dimensiones de tablero no válidas: " + pFilas + "x" + pColumnas
+					+ ", " + pEnRaya + " en raya");
+		}
+		if (pFilas * pColumnas <= Long.SIZE) {
+			return new TableroBitsLong(pFilas, pColumnas, pEnRaya);
+		}
+		return new TableroBitsArray(pFilas, pColumnas, pEnRaya);
+	}
+
+	/**
+	 * @return un núcleo independiente con la misma posición, para que otro hilo pueda buscar sobre él
+	 */
+	abstract TableroBits copiar();
+
+	/**
+	 * Deja todas las casillas del tablero vacías.
+	 */
+	void vaciar() {
+		borrarFichas();
+		numFichas = 0;
+		clave = 0L;
+		claveEspejo = 0L;
+		for (int i = 0; i < columnas; i++) {
+			altura[i] = 0;
+		}
+	}
+
+	/**
+	 * Pre: la columna no está llena
+	 * Post: coloca la ficha del jugador en la primera casilla libre de la columna
+	 *
+	 * @param pColumna la columna en la que se introduce la ficha
+	 * @param pJugador el color de la ficha
+	 * @return la fila en la que ha quedado la ficha
+	 */
+	int poner(int pColumna, boolean pJugador) {
+		int fila = altura[pColumna];
+		int casilla = pColumna * filas + fila;
+		marcar(casilla, pJugador);
+		cambiarClave(casilla, fila, pColumna, pJugador);
+		altura[pColumna] = fila + 1;
+		numFichas++;
+		return fila;
+	}
+
+	/**
+	 * Pre: la columna tiene alguna ficha
+	 * Post: quita la ficha más alta de la columna, deshaciendo el último poner sobre ella
+	 *
+	 * @param pColumna la columna de la que se quita la ficha
+	 */
+	void quitar(int pColumna) {
+		int fila = altura[pColumna] - 1;
+		int casilla = pColumna * filas + fila;
+		cambiarClave(casilla, fila, pColumna, tiene(casilla, true));
+		borrar(casilla);
+		altura[pColumna] = fila;
+		numFichas--;
+	}
+
+	/**
+	 * Añade o quita la ficha de las dos claves, que es la misma operación.
+	 */
+	private void cambiarClave(int pCasilla, int pFila, int pColumna, boolean pJugador) {
+		int espejo = (columnas - 1 - pColumna) * filas + pFila;
+		if (pJugador) {
+			clave ^= zobristRojas[pCasilla];
+			claveEspejo ^= zobristRojas[espejo];
+		} else {
+			clave ^= zobristAzules[pCasilla];
+			claveEspejo ^= zobristAzules[espejo];
+		}
+	}
+
+	boolean columnaLlena(int pColumna) {
+		return altura[pColumna] == filas;
+	}
+
+	boolean lleno() {
+		return numFichas == filas * columnas;
+	}
+
+	/**
+	 * @return true si en la casilla hay una ficha del color indicado
+	 */
+	boolean esColor(int pFila, int pColumna, boolean pColor) {
+		return tiene(pColumna * filas + pFila, pColor);
+	}
+
+	/**
+	 * Comprueba si el jugador tiene alguna línea de enRaya fichas en cualquier dirección.
+	 *
+	 * @param pColor el color del jugador
+	 * @return true si el jugador ha hecho una línea
+	 */
+	abstract boolean hayLinea(boolean pColor);
+
+	/**
+	 * Valoración estática de una posición sin ganador: la de las líneas abiertas más la de las amenazas.
+	 *
+	 * @param pColor el jugador desde cuyo punto de vista se valora
+	 * @return el valor de la posición para pColor
+	 */
+	int evaluar(boolean pColor) {
+		return evaluarLineas(pColor) + evaluarAmenazas(pColor);
+	}
+
+	/**
+	 * Cada línea abierta, con dos fichas o más de un solo jugador, suma su peso según cuántas tenga, a favor si son de
+	 * pColor y en contra si son del rival. Las líneas con fichas de los dos ya no pueden completarse y no cuentan.
+	 *
+	 * @param pColor el jugador desde cuyo punto de vista se valora
+	 * @return el valor de las líneas para pColor
+	 */
+	abstract int evaluarLineas(boolean pColor);
+
+	/**
+	 * Valora las amenazas de los dos jugadores, las casillas vacías que les darían una línea. Al final de la partida
+	 * las columnas se llenan por turnos y quién gana depende de la fila de cada amenaza: con un número par de filas el
+	 * segundo jugador puede contestar siempre en la misma columna y quedarse las casillas de las filas pares (contando
+	 * desde 1), y el primero sólo puede aprovechar las impares. Por eso:
+	 * <ul>
+	 * <li>una amenaza en una fila favorable vale PESO_AMENAZA_BUENA y en otra PESO_AMENAZA</li>
+	 * <li>una amenaza justo encima de una del rival no vale nada: nadie llenará la casilla de abajo hasta que el rival
+	 * la tape, y entonces se tapa también la de arriba</li>
+	 * <li>una amenaza justo encima de otra propia suma PESO_AMENAZA_DOBLE, porque al tapar la de abajo se juega la de
+	 * arriba</li>
+	 * </ul>
+	 * Se supone, como en el juego, que empiezan las rojas.
+	 *
+	 * @param pColor el jugador desde cuyo punto de vista se valora
+	 * @return el valor de las amenazas para pColor
+	 */
+	abstract int evaluarAmenazas(boolean pColor);
+
+	/**
+	 * @return si la fila favorece a las amenazas del jugador: las pares (contando desde 0) a las rojas y las impares a
+	 * las azules. Con un número impar de filas no favorece a nadie
+	 */
+	protected boolean filaFavorable(int pFila, boolean pColor) {
+		return filas % 2 == 0 && (pFila % 2 == 0) == pColor;
+	}
+
+	/**
+	 * Obtiene las columnas en las que el jugador gana con su siguiente ficha. Con pColor el jugador al que le toca son
+	 * las jugadas ganadoras, y con el rival las que hay que tapar para no perder.
+	 * <p>
+	 * Esta versión prueba cada columna poniendo y quitando la ficha, así que no se puede llamar a la vez desde otro
+	 * hilo sobre el mismo núcleo.
+	 *
+	 * @param pColor el jugador
+	 * @return un long con el bit c a 1 si la columna c da una línea al jugador
+	 */
+	long columnasGanadoras(boolean pColor) {
+		long columnasG = 0L;
+		for (int c = 0; c < columnas; c++) {
+			if (!columnaLlena(c)) {
+				int fila = poner(c, pColor);
+				if (formaLinea(fila, c, pColor)) {
+					columnasG |= 1L << c;
+				}
+				quitar(c);
+			}
+		}
+		return columnasG;
+	}
+
+	/**
+	 * Comprueba si la casilla forma parte de una línea de enRaya fichas del color indicado. Cada núcleo lo hace con
+	 * sus máscaras, sin recorrer las casillas.
+	 *
+	 * @param pFila    fila de la casilla
+	 * @param pColumna columna de la casilla
+	 * @param pColor   color de las fichas
+	 * @return true si la casilla está dentro de alguna línea ganadora
+	 */
+	abstract boolean formaLinea(int pFila, int pColumna, boolean pColor);
+
+	/**
+	 * Pre: el jugador no tenía ninguna línea antes de poner la ficha de la casilla
+	 * Post: comprueba si esa ficha le da una línea. Es lo que se pregunta en cada nodo de la búsqueda, y cada núcleo
+	 * lo resuelve de la forma más barata que tenga.
+	 *
+	 * @return true si la ficha de la casilla completa una línea de enRaya fichas
+	 */
+	boolean completaLinea(int pFila, int pColumna, boolean pColor) {
+		return formaLinea(pFila, pColumna, pColor);
+	}
+
+	/**
+	 * Obtiene la línea ganadora que pasa por la casilla dada. Se llama tras cada jugada, y casi nunca hay línea, así
+	 * que primero se pregunta a formaLinea, que sólo usa máscaras. Si la hay, se recorre cada dirección hacia los dos
+	 * lados mientras las fichas sean del mismo color y se devuelve la primera línea con al menos enRaya fichas.
+	 *
+	 * @param pFila    fila de la casilla
+	 * @param pColumna columna de la casilla
+	 * @param pColor   color de las fichas
+	 * @return la línea codificada con codificarLinea, 0 si la casilla no forma parte de ninguna
+	 */
+	long lineaGanadora(int pFila, int pColumna, boolean pColor) {
+		if (!formaLinea(pFila, pColumna, pColor)) {
+			return 0L;
+		}
+		for (int d = 0; d < DIRECCIONES.length; d++) {
+			int df = DIRECCIONES[d][0];
+			int dc = DIRECCIONES[d][1];
+			int f = pFila + df;
+			int c = pColumna + dc;
+			int seguidas = 1;
+			while (dentro(f, c) && esColor(f, c, pColor)) {
+				seguidas++;
+				f += df;
+				c += dc;
+			}
+			f = pFila - df;
+			c = pColumna - dc;
+			while (dentro(f, c) && esColor(f, c, pColor)) {
+				seguidas++;
+				f -= df;
+				c -= dc;
+			}
+			if (seguidas >= enRaya) {
+				return codificarLinea(f + df, c + dc, d, seguidas);
+			}
+		}
+		return 0L;
+	}
+
+	/**
+	 * Codifica una línea de fichas en un long: la casilla en la que empieza, la dirección en la que avanza y su
+	 * longitud. El resultado nunca es 0.
+	 */
+	static long codificarLinea(int pFila, int pColumna, int pDireccion, int pLongitud) {
+		return pFila | (long) pColumna << 16 | (long) pDireccion << 32 | (long) pLongitud << 40;
+	}
+
+	static int getLongitudLinea(long pLinea) {
+		return (int) (pLinea >>> 40) & 0xFFFF;
+	}
+
+	/**
+	 * @return la fila de la ficha número pI de la línea, empezando en 0
+	 */
+	static int getFilaLinea(long pLinea, int pI) {
+		int direccion = (int) (pLinea >>> 32) & 0xFF;
+		return ((int) pLinea & 0xFFFF) + DIRECCIONES[direccion][0] * pI;
+	}
+
+	/**
+	 * @return la columna de la ficha número pI de la línea, empezando en 0
+	 */
+	static int getColumnaLinea(long pLinea, int pI) {
+		int direccion = (int) (pLinea >>> 32) & 0xFF;
+		return ((int) (pLinea >>> 16) & 0xFFFF) + DIRECCIONES[direccion][1] * pI;
+	}
+
+	boolean dentro(int pFila, int pColumna) {
+		return pFila >= 0 && pFila < filas && pColumna >= 0 && pColumna < columnas;
+	}
+
+	/**
+	 * Pone a 0 las fichas de los dos jugadores.
+	 */
+	protected abstract void borrarFichas();
+
+	/**
+	 * Pone a 1 la casilla en el conjunto del jugador.
+	 */
+	protected abstract void marcar(int pCasilla, boolean pJugador);
+
+	/**
+	 * Pone a 0 la casilla en los conjuntos de los dos jugadores.
+	 */
+	protected abstract void borrar(int pCasilla);
+
+	/**
+	 * @return true si la casilla está en el conjunto del jugador
+	 */
+	protected abstract boolean tiene(int pCasilla, boolean pJugador);
+
+	/**
+	 * @return la fila en la que caerá la siguiente ficha de la columna, que coincide con el número de fichas de la
+	 * columna
+	 */
+	int getAltura(int pColumna) {
+		return altura[pColumna];
+	}
+
+	/**
+	 * @return la clave Zobrist de la posición, 0 con el tablero vacío
+	 */
+	long getClave() {
+		return clave;
+	}
+
+	/**
+	 * @return la clave que tendría la posición reflejada de izquierda a derecha
+	 */
+	long getClaveEspejo() {
+		return claveEspejo;
+	}
+
+	int getNumFichas() {
+		return numFichas;
+	}
+
+	int getFilas() {
+		return filas;
+	}
+
+	int getColumnas() {
+		return columnas;
+	}
+
+	int getEnRaya() {
+		return enRaya;
+	}
+}
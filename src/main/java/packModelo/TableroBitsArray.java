@@ -0,0 +1,328 @@
+package packModelo;
+
+import java.util.Arrays;
+
+/**
+ * Núcleo de los tableros de más de 64 casillas. Las fichas de cada jugador se guardan en un long[] en el que la
+ * casilla i es el bit i % 64 de la palabra i / 64. Las líneas se comprueban como en TableroBitsLong, con
+ * desplazamientos y AND, pero palabra a palabra: la palabra p de la máscara desplazada k bits se forma con los bits de
+ * las palabras p + k / 64 y la siguiente, así que las líneas que cruzan de una palabra a otra también se ven.
+ */
+class TableroBitsArray extends TableroBits {
+
+	private final long[] rojas;
+	private final long[] azules;
+	/**
+	 * Desplazamiento de bits que lleva de una casilla a la siguiente en cada dirección y, para cada dirección, las
+	 * casillas en las que puede empezar una línea de enRaya fichas sin salirse del tablero, palabra a palabra.
+	 */
+	private final int[] desplazamientos;
+	private final long[][] inicios;
+	/**
+	 * Cada línea posible como trozos de una palabra: los de la línea l van de trozosLinea[l] a
+	 * trozosLinea[l + 1] - 1, y el trozo t son los bits mascarasTrozo[t] de la palabra palabrasTrozo[t].
+	 */
+	private final int[] trozosLinea;
+	private final int[] palabrasTrozo;
+	private final long[] mascarasTrozo;
+	/**
+	 * Casillas de la fila 0, y las de las filas que favorecen a las amenazas de cada jugador (ver evaluarAmenazas).
+	 */
+	private final long[] suelo;
+	private final long[] favorablesRojas;
+	private final long[] favorablesAzules;
+
+	TableroBitsArray(int pFilas, int pColumnas, int pEnRaya) {
+		super(pFilas, pColumnas, pEnRaya);
+		int palabras = (pFilas * pColumnas + Long.SIZE - 1) / Long.SIZE;
+		this.rojas = new long[palabras];
+		this.azules = new long[palabras];
+		this.desplazamientos = new int[DIRECCIONES.length];
+		this.inicios = new long[DIRECCIONES.length][palabras];
+		for (int d = 0; d < DIRECCIONES.length; d++) {
+			int df = DIRECCIONES[d][0];
+			int dc = DIRECCIONES[d][1];
+			desplazamientos[d] = dc * filas + df;
+			for (int c = 0; c < columnas; c++) {
+				for (int f = 0; f < filas; f++) {
+					if (dentro(f + df * (enRaya - 1), c + dc * (enRaya - 1))) {
+						int casilla = c * filas + f;
+						inicios[d][casilla >>> 6] |= 1L << casilla;
+					}
+				}
+			}
+		}
+		//LAS CASILLAS DE CADA LÍNEA VAN EN ORDEN CRECIENTE, ASÍ QUE LAS DE UNA MISMA PALABRA ESTÁN SEGUIDAS
+		this.trozosLinea = new int[numLineas + 1];
+		int[] palabrasT = new int[numLineas * enRaya];
+		long[] mascarasT = new long[numLineas * enRaya];
+		int n = 0;
+		for (int l = 0; l < numLineas; l++) {
+			trozosLinea[l] = n;
+			for (int i = 0; i < enRaya; i++) {
+				int casilla = casillasLineas[l * enRaya + i];
+				if (n > trozosLinea[l] && palabrasT[n - 1] == casilla >>> 6) {
+					mascarasT[n - 1] |= 1L << casilla;
+				} else {
+					palabrasT[n] = casilla >>> 6;
+					mascarasT[n++] = 1L << casilla;
+				}
+			}
+		}
+		trozosLinea[numLineas] = n;
+		this.palabrasTrozo = Arrays.copyOf(palabrasT, n);
+		this.mascarasTrozo = Arrays.copyOf(mascarasT, n);
+		this.suelo = new long[palabras];
+		this.favorablesRojas = new long[palabras];
+		this.favorablesAzules = new long[palabras];
+		for (int c = 0; c < columnas; c++) {
+			for (int f = 0; f < filas; f++) {
+				int casilla = c * filas + f;
+				if (f == 0) {
+					suelo[casilla >>> 6] |= 1L << casilla;
+				}
+				if (filaFavorable(f, true)) {
+					favorablesRojas[casilla >>> 6] |= 1L << casilla;
+				}
+				if (filaFavorable(f, false)) {
+					favorablesAzules[casilla >>> 6] |= 1L << casilla;
+				}
+			}
+		}
+	}
+
+	private TableroBitsArray(TableroBitsArray pOriginal) {
+		super(pOriginal);
+		this.rojas = pOriginal.rojas.clone();
+		this.azules = pOriginal.azules.clone();
+		this.desplazamientos = pOriginal.desplazamientos;
+		this.inicios = pOriginal.inicios;
+		this.trozosLinea = pOriginal.trozosLinea;
+		this.palabrasTrozo = pOriginal.palabrasTrozo;
+		this.mascarasTrozo = pOriginal.mascarasTrozo;
+		this.suelo = pOriginal.suelo;
+		this.favorablesRojas = pOriginal.favorablesRojas;
+		this.favorablesAzules = pOriginal.favorablesAzules;
+	}
+
+	@Override
+	TableroBits copiar() {
+		return new TableroBitsArray(this);
+	}
+
+	@Override
+	protected void borrarFichas() {
+		for (int i = 0; i < rojas.length; i++) {
+			rojas[i] = 0L;
+			azules[i] = 0L;
+		}
+	}
+
+	@Override
+	protected void marcar(int pCasilla, boolean pJugador) {
+		long[] fichas = pJugador ? rojas : azules;
+		fichas[pCasilla >>> 6] |= 1L << pCasilla;
+	}
+
+	@Override
+	protected void borrar(int pCasilla) {
+		rojas[pCasilla >>> 6] &= ~(1L << pCasilla);
+		azules[pCasilla >>> 6] &= ~(1L << pCasilla);
+	}
+
+	@Override
+	protected boolean tiene(int pCasilla, boolean pJugador) {
+		long[] fichas = pJugador ? rojas : azules;
+		return (fichas[pCasilla >>> 6] & 1L << pCasilla) != 0;
+	}
+
+	/**
+	 * Para cada dirección y cada palabra se queda con los inicios en los que el jugador tiene las enRaya casillas de
+	 * la línea.
+	 */
+	@Override
+	boolean hayLinea(boolean pColor) {
+		long[] fichas = pColor ? rojas : azules;
+		for (int d = 0; d < desplazamientos.length; d++) {
+			int s = desplazamientos[d];
+			for (int p = 0; p < fichas.length; p++) {
+				long m = inicios[d][p];
+				for (int i = 0; i < enRaya && m != 0; i++) {
+					m &= desplazada(fichas, p, i * s);
+				}
+				if (m != 0) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Basta con mirar si el jugador tiene completa alguna de las líneas que pasan por la casilla, trozo a trozo.
+	 */
+	@Override
+	boolean formaLinea(int pFila, int pColumna, boolean pColor) {
+		long[] fichas = pColor ? rojas : azules;
+		for (int l : lineasDeCasilla[pColumna * filas + pFila]) {
+			if (tieneLinea(fichas, l)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	int evaluarLineas(boolean pColor) {
+		long[] mias = pColor ? rojas : azules;
+		long[] suyas = pColor ? azules : rojas;
+		if (enRaya > 7) {
+			return evaluarPorLineas(mias, suyas);
+		}
+		int valor = 0;
+		for (int d = 0; d < desplazamientos.length; d++) {
+			for (int p = 0; p < mias.length; p++) {
+				valor += valorarLineas(mias, suyas, d, p) - valorarLineas(suyas, mias, d, p);
+			}
+		}
+		return valor;
+	}
+
+	/**
+	 * Lo mismo que TableroBitsLong.valorarLineas para las líneas que empiezan en la palabra pPalabra: un contador de
+	 * tres bits por casilla de inicio, como tres máscaras, al que se suma la palabra desplazada de cada casilla de la
+	 * línea.
+	 */
+	private int valorarLineas(long[] pFichas, long[] pRival, int pDireccion, int pPalabra) {
+		int s = desplazamientos[pDireccion];
+		long abiertas = inicios[pDireccion][pPalabra];
+		for (int i = 0; i < enRaya && abiertas != 0; i++) {
+			abiertas &= ~desplazada(pRival, pPalabra, i * s);
+		}
+		if (abiertas == 0) {
+			return 0;
+		}
+		long c0 = 0L;
+		long c1 = 0L;
+		long c2 = 0L;
+		for (int i = 0; i < enRaya; i++) {
+			long x = desplazada(pFichas, pPalabra, i * s);
+			long acarreo = c0 & x;
+			c0 ^= x;
+			long acarreo2 = c1 & acarreo;
+			c1 ^= acarreo;
+			c2 ^= acarreo2;
+		}
+		int valor = 0;
+		for (int k = 2; k < enRaya; k++) {
+			long conK = abiertas & ((k & 1) != 0 ? c0 : ~c0) & ((k & 2) != 0 ? c1 : ~c1) & ((k & 4) != 0 ? c2 : ~c2);
+			valor += pesosLinea[k] * Long.bitCount(conK);
+		}
+		return valor;
+	}
+
+	/**
+	 * Valoración recorriendo las líneas por trozos, para cuando hacen falta más de siete fichas seguidas y el contador
+	 * de tres bits no alcanza.
+	 */
+	private int evaluarPorLineas(long[] pMias, long[] pSuyas) {
+		int valor = 0;
+		for (int l = 0; l < numLineas; l++) {
+			int mias = 0;
+			int suyas = 0;
+			for (int t = trozosLinea[l]; t < trozosLinea[l + 1]; t++) {
+				mias += Long.bitCount(pMias[palabrasTrozo[t]] & mascarasTrozo[t]);
+				suyas += Long.bitCount(pSuyas[palabrasTrozo[t]] & mascarasTrozo[t]);
+			}
+			if (suyas == 0) {
+				valor += pesosLinea[mias];
+			} else if (mias == 0) {
+				valor -= pesosLinea[suyas];
+			}
+		}
+		return valor;
+	}
+
+	/**
+	 * Lo mismo que TableroBitsLong.evaluarAmenazas, palabra a palabra y sin crear arrays: la casilla de encima de la
+	 * última de una palabra es la primera de la siguiente, así que se lleva el último bit de las amenazas de la
+	 * palabra anterior.
+	 */
+	@Override
+	int evaluarAmenazas(boolean pColor) {
+		int valor = 0;
+		long anteriorRojas = 0L;
+		long anteriorAzules = 0L;
+		for (int p = 0; p < rojas.length; p++) {
+			long rojasA = amenazas(rojas, p);
+			long azulesA = amenazas(azules, p);
+			long encimaRojas = (rojasA << 1 | anteriorRojas >>> 63) & ~suelo[p];
+			long encimaAzules = (azulesA << 1 | anteriorAzules >>> 63) & ~suelo[p];
+			valor += valorarAmenazas(rojasA & ~encimaAzules, encimaRojas, favorablesRojas[p])
+					- valorarAmenazas(azulesA & ~encimaRojas, encimaAzules, favorablesAzules[p]);
+			anteriorRojas = rojasA;
+			anteriorAzules = azulesA;
+		}
+		return pColor ? valor : -valor;
+	}
+
+	private static int valorarAmenazas(long pAmenazas, long pEncimaPropias, long pFavorables) {
+		return PESO_AMENAZA_BUENA * Long.bitCount(pAmenazas & pFavorables)
+				+ PESO_AMENAZA * Long.bitCount(pAmenazas & ~pFavorables)
+				+ PESO_AMENAZA_DOBLE * Long.bitCount(pAmenazas & pEncimaPropias);
+	}
+
+	/**
+	 * Obtiene una palabra de las casillas vacías que completarían una línea del jugador. Para cada dirección y cada
+	 * hueco j de la línea, una casilla es hueco si la línea que empieza j casillas antes puede empezar allí y el
+	 * jugador tiene las otras enRaya - 1.
+	 *
+	 * @return la palabra pPalabra de la máscara de amenazas del jugador
+	 */
+	private long amenazas(long[] pFichas, int pPalabra) {
+		long huecos = 0L;
+		for (int d = 0; d < desplazamientos.length; d++) {
+			int s = desplazamientos[d];
+			for (int j = 0; j < enRaya; j++) {
+				long conHueco = desplazada(inicios[d], pPalabra, -j * s);
+				for (int i = 0; i < enRaya && conHueco != 0; i++) {
+					if (i != j) {
+						conHueco &= desplazada(pFichas, pPalabra, (i - j) * s);
+					}
+				}
+				huecos |= conHueco;
+			}
+		}
+		return huecos & ~(rojas[pPalabra] | azules[pPalabra]);
+	}
+
+	private boolean tieneLinea(long[] pFichas, int pLinea) {
+		for (int t = trozosLinea[pLinea]; t < trozosLinea[pLinea + 1]; t++) {
+			if ((pFichas[palabrasTrozo[t]] & mascarasTrozo[t]) != mascarasTrozo[t]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Obtiene una palabra de la máscara desplazada hacia las casillas bajas, como si todo el long[] fuera un único
+	 * número: el bit b de la palabra devuelta es la casilla pPalabra * 64 + b + pBits. Con pBits negativo se desplaza
+	 * hacia las altas. Lo que cae fuera del tablero es 0.
+	 *
+	 * @param pFichas  la máscara
+	 * @param pPalabra la palabra que se quiere del resultado
+	 * @param pBits    cuántas casillas se desplaza
+	 * @return la palabra pPalabra de la máscara desplazada
+	 */
+	private static long desplazada(long[] pFichas, int pPalabra, int pBits) {
+		int desde = pPalabra * Long.SIZE + pBits;
+		int p = desde >> 6;
+		int r = desde & 63;
+		long palabra = p >= 0 && p < pFichas.length ? pFichas[p] >>> r : 0L;
+		if (r != 0 && p + 1 >= 0 && p + 1 < pFichas.length) {
+			palabra |= pFichas[p + 1] << Long.SIZE - r;
+		}
+		return palabra;
+	}
+}
@@ -0,0 +1,351 @@
+package packModelo;
+
+/**
+ * Núcleo de los tableros de hasta 64 casillas. Las fichas de cada jugador se guardan en un único long, de modo que
+ * comprobar una línea son unos pocos desplazamientos y AND sobre la máscara del jugador. Cada línea posible se guarda
+ * también como máscara, y contar las fichas de un jugador en ella es un bitCount.
+ */
+class TableroBitsLong extends TableroBits {
+
+	/**
+	 * Fichas rojas (true) y azules (false), una casilla por bit.
+	 */
+	private long rojas;
+	private long azules;
+	/**
+	 * Desplazamiento de bits que lleva de una casilla a la siguiente en cada dirección y, para cada dirección, las
+	 * casillas en las que puede empezar una línea de enRaya fichas sin salirse del tablero.
+	 */
+	private final int[] desplazamientos;
+	private final long[] inicios;
+	/**
+	 * Máscara de cada línea posible, en el mismo orden que casillasLineas.
+	 */
+	private final long[] lineas;
+	/**
+	 * Casillas de la fila 0, y las de las filas que favorecen a las amenazas de cada jugador (ver evaluarAmenazas).
+	 */
+	private final long suelo;
+	private final long favorablesRojas;
+	private final long favorablesAzules;
+
+	TableroBitsLong(int pFilas, int pColumnas, int pEnRaya) {
+		super(pFilas, pColumnas, pEnRaya);
+		if (pFilas * pColumnas > Long.SIZE) {
+			throw new IllegalArgumentException("El tablero no cabe en un long: " + pFilas + "x" + pColumnas);
+		}
+		this.desplazamientos = new int[DIRECCIONES.length];
+		this.inicios = new long[DIRECCIONES.length];
+		for (int d = 0; d < DIRECCIONES.length; d++) {
+			int df = DIRECCIONES[d][0];
+			int dc = DIRECCIONES[d][1];
+			desplazamientos[d] = dc * filas + df;
+			for (int c = 0; c < columnas; c++) {
+				for (int f = 0; f < filas; f++) {
+					if (dentro(f, c) && dentro(f + df * (enRaya - 1), c + dc * (enRaya - 1))) {
+						inicios[d] |= 1L << (c * filas + f);
+					}
+				}
+			}
+		}
+		this.lineas = new long[numLineas];
+		for (int l = 0; l < numLineas; l++) {
+			for (int i = 0; i < enRaya; i++) {
+				lineas[l] |= 1L << casillasLineas[l * enRaya + i];
+			}
+		}
+		long sueloC = 0L;
+		long rojasF = 0L;
+		long azulesF = 0L;
+		for (int c = 0; c < columnas; c++) {
+			sueloC |= 1L << (c * filas);
+			for (int f = 0; f < filas; f++) {
+				if (filaFavorable(f, true)) {
+					rojasF |= 1L << (c * filas + f);
+				}
+				if (filaFavorable(f, false)) {
+					azulesF |= 1L << (c * filas + f);
+				}
+			}
+		}
+		this.suelo = sueloC;
+		this.favorablesRojas = rojasF;
+		this.favorablesAzules = azulesF;
+	}
+
+	private TableroBitsLong(TableroBitsLong pOriginal) {
+		super(pOriginal);
+		this.rojas = pOriginal.rojas;
+		this.azules = pOriginal.azules;
+		this.desplazamientos = pOriginal.desplazamientos;
+		this.inicios = pOriginal.inicios;
+		this.lineas = pOriginal.lineas;
+		this.suelo = pOriginal.suelo;
+		this.favorablesRojas = pOriginal.favorablesRojas;
+		this.favorablesAzules = pOriginal.favorablesAzules;
+	}
+
+	@Override
+	TableroBits copiar() {
+		return new TableroBitsLong(this);
+	}
+
+	@Override
+	protected void borrarFichas() {
+		rojas = 0L;
+		azules = 0L;
+	}
+
+	@Override
+	protected void marcar(int pCasilla, boolean pJugador) {
+		if (pJugador) {
+			rojas |= 1L << pCasilla;
+		} else {
+			azules |= 1L << pCasilla;
+		}
+	}
+
+	@Override
+	protected void borrar(int pCasilla) {
+		rojas &= ~(1L << pCasilla);
+		azules &= ~(1L << pCasilla);
+	}
+
+	@Override
+	protected boolean tiene(int pCasilla, boolean pJugador) {
+		return ((pJugador ? rojas : azules) & 1L << pCasilla) != 0;
+	}
+
+	/**
+	 * Para cada dirección se desplaza la máscara sobre sí misma, de modo que sólo quedan a 1 las casillas en las que
+	 * empieza una línea.
+	 */
+	@Override
+	boolean hayLinea(boolean pColor) {
+		long fichas = pColor ? rojas : azules;
+		for (int d = 0; d < desplazamientos.length; d++) {
+			if (iniciosDeLinea(fichas, d) != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Basta con mirar si el jugador tiene completa alguna de las líneas que pasan por la casilla.
+	 */
+	@Override
+	boolean formaLinea(int pFila, int pColumna, boolean pColor) {
+		long fichas = pColor ? rojas : azules;
+		for (int l : lineasDeCasilla[pColumna * filas + pFila]) {
+			if ((fichas & lineas[l]) == lineas[l]) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	int evaluarLineas(boolean pColor) {
+		long mias = pColor ? rojas : azules;
+		long suyas = pColor ? azules : rojas;
+		if (enRaya > 7) {
+			return evaluarPorLineas(mias, suyas);
+		}
+		int valor = 0;
+		for (int d = 0; d < desplazamientos.length; d++) {
+			valor += valorarLineas(mias, suyas, d) - valorarLineas(suyas, mias, d);
+		}
+		return valor;
+	}
+
+	/**
+	 * Calcula todas las columnas a la vez: de las casillas que darían una línea al jugador se queda con las que son
+	 * la siguiente de su columna. No modifica el núcleo.
+	 */
+	@Override
+	long columnasGanadoras(boolean pColor) {
+		long jugadas = amenazas(pColor) & jugables();
+		long columnasG = 0L;
+		while (jugadas != 0) {
+			columnasG |= 1L << Long.numberOfTrailingZeros(jugadas) / filas;
+			jugadas &= jugadas - 1;
+		}
+		return columnasG;
+	}
+
+	/**
+	 * Lo mismo que la versión general, con las amenazas de cada jugador en una máscara. Desplazar una máscara un bit
+	 * lleva cada casilla a la de encima; las de la fila de arriba pasan a la fila 0 de la columna siguiente y se
+	 * quitan con el suelo.
+	 */
+	@Override
+	int evaluarAmenazas(boolean pColor) {
+		long rojasA = amenazas(true);
+		long azulesA = amenazas(false);
+		if ((rojasA | azulesA) == 0) {
+			return 0;
+		}
+		long encimaRojas = rojasA << 1 & ~suelo;
+		long encimaAzules = azulesA << 1 & ~suelo;
+		int valor = valorarAmenazas(rojasA & ~encimaAzules, encimaRojas, favorablesRojas)
+				- valorarAmenazas(azulesA & ~encimaRojas, encimaAzules, favorablesAzules);
+		return pColor ? valor : -valor;
+	}
+
+	private static int valorarAmenazas(long pAmenazas, long pEncimaPropias, long pFavorables) {
+		return PESO_AMENAZA_BUENA * Long.bitCount(pAmenazas & pFavorables)
+				+ PESO_AMENAZA * Long.bitCount(pAmenazas & ~pFavorables)
+				+ PESO_AMENAZA_DOBLE * Long.bitCount(pAmenazas & pEncimaPropias);
+	}
+
+	/**
+	 * Obtiene las casillas vacías que completarían una línea del jugador, estén o no a su alcance. Para cada dirección
+	 * y cada hueco j de la línea se buscan los inicios en los que el jugador tiene las otras enRaya - 1 casillas, y se
+	 * desplazan hasta el hueco.
+	 *
+	 * @return la máscara de las casillas vacías que darían una línea al jugador
+	 */
+	long amenazas(boolean pColor) {
+		long fichas = pColor ? rojas : azules;
+		long huecos = 0L;
+		for (int d = 0; d < desplazamientos.length; d++) {
+			int s = desplazamientos[d];
+			if (enRaya == 4) {
+				//EL CASO DEL JUEGO, DESENROLLADO: fN ES LA CASILLA N DE LA LÍNEA QUE EMPIEZA EN CADA BIT
+				long f1 = fichas >>> s;
+				long f2 = fichas >>> 2 * s;
+				long f3 = fichas >>> 3 * s;
+				long f01 = inicios[d] & fichas & f1;
+				long f23 = inicios[d] & f2 & f3;
+				huecos |= (f1 & f23) | (fichas & f23) << s | (f01 & f3) << 2 * s | (f01 & f2) << 3 * s;
+				continue;
+			}
+			for (int j = 0; j < enRaya; j++) {
+				long conHueco = inicios[d];
+				for (int i = 0; i < enRaya && conHueco != 0; i++) {
+					if (i != j) {
+						conHueco &= fichas >>> i * s;
+					}
+				}
+				huecos |= conHueco << j * s;
+			}
+		}
+		return huecos & ~(rojas | azules);
+	}
+
+	/**
+	 * @return la máscara de las casillas en las que caería la siguiente ficha de cada columna que no está llena
+	 */
+	long jugables() {
+		long casillas = 0L;
+		for (int c = 0; c < columnas; c++) {
+			if (altura[c] < filas) {
+				casillas |= 1L << (c * filas + altura[c]);
+			}
+		}
+		return casillas;
+	}
+
+	/**
+	 * Suma los pesos de las líneas de la dirección en las que pFichas no tiene ninguna ficha del rival. En lugar de
+	 * recorrer las líneas una a una se cuentan las fichas de todas a la vez: cada casilla de inicio lleva un contador
+	 * de tres bits, guardado como tres máscaras (c0, c1, c2), al que se suma la máscara desplazada de cada casilla de
+	 * la línea. Después basta un bitCount por cada número de fichas que tiene peso.
+	 */
+	private int valorarLineas(long pFichas, long pRival, int pDireccion) {
+		long abiertas = iniciosDeLinea(~pRival, pDireccion);
+		if (abiertas == 0) {
+			return 0;
+		}
+		int s = desplazamientos[pDireccion];
+		if (enRaya == 4) {
+			//EL CASO HABITUAL SE SUMA SIN BUCLES: a + b Y c + d POR SEPARADO Y LUEGO LAS DOS SUMAS
+			long a = pFichas;
+			long b = pFichas >>> s;
+			long c = pFichas >>> 2 * s;
+			long d = pFichas >>> 3 * s;
+			long ab1 = a ^ b;
+			long ab2 = a & b;
+			long cd1 = c ^ d;
+			long cd2 = c & d;
+			long bit0 = ab1 ^ cd1;
+			long bit1 = ab2 ^ cd2 ^ (ab1 & cd1);
+			long dos = abiertas & bit1 & ~bit0 & ~(ab2 & cd2);
+			long tres = abiertas & bit1 & bit0;
+			return pesosLinea[2] * Long.bitCount(dos) + pesosLinea[3] * Long.bitCount(tres);
+		}
+		long c0 = 0L;
+		long c1 = 0L;
+		long c2 = 0L;
+		for (int i = 0; i < enRaya; i++) {
+			long x = pFichas >>> i * s;
+			long acarreo = c0 & x;
+			c0 ^= x;
+			long acarreo2 = c1 & acarreo;
+			c1 ^= acarreo;
+			c2 ^= acarreo2;
+		}
+		int valor = 0;
+		for (int k = 2; k < enRaya; k++) {
+			long conK = abiertas & ((k & 1) != 0 ? c0 : ~c0) & ((k & 2) != 0 ? c1 : ~c1) & ((k & 4) != 0 ? c2 : ~c2);
+			valor += pesosLinea[k] * Long.bitCount(conK);
+		}
+		return valor;
+	}
+
+	/**
+	 * Valoración recorriendo la tabla de líneas, para cuando hacen falta más de siete fichas seguidas y el contador
+	 * de tres bits no alcanza.
+	 */
+	private int evaluarPorLineas(long pMias, long pSuyas) {
+		int valor = 0;
+		for (long linea : lineas) {
+			long m = pMias & linea;
+			long s = pSuyas & linea;
+			if (s == 0) {
+				valor += pesosLinea[Long.bitCount(m)];
+			} else if (m == 0) {
+				valor -= pesosLinea[Long.bitCount(s)];
+			}
+		}
+		return valor;
+	}
+
+	/**
+	 * Como antes de la ficha no había línea, cualquier línea del jugador tiene que pasar por ella y basta con mirar
+	 * toda la máscara, que es más barato que recorrer desde la casilla.
+	 */
+	@Override
+	boolean completaLinea(int pFila, int pColumna, boolean pColor) {
+		return hayLinea(pColor);
+	}
+
+	/**
+	 * Obtiene las casillas en las que empieza una línea de enRaya fichas. Se duplica la longitud de las líneas en
+	 * cada paso, así que con cuatro en raya bastan dos desplazamientos.
+	 *
+	 * @return las casillas de la máscara en las que empieza una línea en la dirección pDireccion
+	 */
+	private long iniciosDeLinea(long pFichas, int pDireccion) {
+		int s = desplazamientos[pDireccion];
+		long m = pFichas;
+		int longitud = 1;
+		while (longitud * 2 <= enRaya) {
+			m &= m >>> longitud * s;
+			longitud *= 2;
+		}
+		if (longitud < enRaya) {
+			m &= m >>> (enRaya - longitud) * s;
+		}
+		return m & inicios[pDireccion];
+	}
+
+	long getFichas(boolean pColor) {
+		return pColor ? rojas : azules;
+	}
+
+	long getOcupadas() {
+		return rojas | azules;
+	}
+}
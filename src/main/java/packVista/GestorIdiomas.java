@@ -51,6 +51,8 @@ public class GestorIdiomas extends Observable {
 		frases.put("tabla_vacia", "No hay partidas");
 		frases.put("ordenador_facil", "Ordenador modo Facil");
 		frases.put("ordenador_dificil", "Ordenador modo Dificil");
+		frases.put("ordenador_experto", "Ordenador modo Experto");
+		frases.put("ordenador_montecarlo", "Ordenador modo Montecarlo");
 		frases.put("guardar", "Guardar");
 		frases.put("cerrar", "Cerrar");
 		frases.put("modo_juego", "Modo de juego:");
@@ -92,6 +94,8 @@ public class GestorIdiomas extends Observable {
 		frases.put("tabla_vacia", "Ez dago partidarik");
 		frases.put("ordenador_facil", "Ordenailu modu Erraza");
 		frases.put("ordenador_dificil", "Ordenagailu modu Zaila");
+		frases.put("ordenador_experto", "Ordenagailu modu Aditua");
+		frases.put("ordenador_montecarlo", "Ordenagailu modu Montecarlo");
 		frases.put("guardar", "Gorde");
 		frases.put("cerrar", "Itxi");
 		frases.put("modo_juego", "Jolas modua:");
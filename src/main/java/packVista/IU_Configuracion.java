@@ -28,7 +28,9 @@ public class IU_Configuracion {
 				FXCollections.observableArrayList(
 						"1vs1",
 						(String) frases.get("ordenador_facil"),
-						(String) frases.get("ordenador_dificil")
+						(String) frases.get("ordenador_dificil"),
+						(String) frases.get("ordenador_experto"),
+						(String) frases.get("ordenador_montecarlo")
 				);
 		modoJuego.setValue(Conecta4.getmConecta4().getModoJuego());
 		modoJuego.setItems(options);
@@ -57,6 +59,12 @@ public class IU_Configuracion {
 			if (idioma.get("ordenador_dificil").equals(modoElegido)) {
 				modoElegido = (String) GestorIdiomas.getmGestorIdiomas().getIdioma(0).get("ordenador_dificil");
 			}
+			if (idioma.get("ordenador_experto").equals(modoElegido)) {
+				modoElegido = (String) GestorIdiomas.getmGestorIdiomas().getIdioma(0).get("ordenador_experto");
+			}
+			if (idioma.get("ordenador_montecarlo").equals(modoElegido)) {
+				modoElegido = (String) GestorIdiomas.getmGestorIdiomas().getIdioma(0).get("ordenador_montecarlo");
+			}
 		}
 		Conecta4.getmConecta4().setModoJuego(modoElegido);
 	}
@@ -309,6 +309,10 @@ public class IU_Menu extends Stage implements Observer {
 			modo.setText((String)frases.get("modo") + GestorIdiomas.getmGestorIdiomas().getIdiomaActual().get("ordenador_facil"));
 		} else if (GestorIdiomas.getmGestorIdiomas().getIdioma(0).get("ordenador_dificil").equals(modoJuego)) {
 			modo.setText((String)frases.get("modo") + GestorIdiomas.getmGestorIdiomas().getIdiomaActual().get("ordenador_dificil"));
+		} else if (GestorIdiomas.getmGestorIdiomas().getIdioma(0).get("ordenador_experto").equals(modoJuego)) {
+			modo.setText((String)frases.get("modo") + GestorIdiomas.getmGestorIdiomas().getIdiomaActual().get("ordenador_experto"));
+		} else if (GestorIdiomas.getmGestorIdiomas().getIdioma(0).get("ordenador_montecarlo").equals(modoJuego)) {
+			modo.setText((String)frases.get("modo") + GestorIdiomas.getmGestorIdiomas().getIdiomaActual().get("ordenador_montecarlo"));
 		} else {
 			modo.setText(frases.get("modo") + "1vs1");
 		}
@@ -4,6 +4,7 @@ import javafx.animation.Interpolator;
 import javafx.animation.KeyFrame;
 import javafx.animation.KeyValue;
 import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.fxml.FXML;
@@ -30,7 +31,6 @@ import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import packControlador.Conecta4;
 import packMain.Main;
-import packModelo.Tablero;
 
 import javax.sound.sampled.*;
 import java.io.IOException;
@@ -143,6 +143,9 @@ public class IU_Tablero implements Observer {
 
 	private boolean terminarPulsado = false;
 
+	//mientras el ordenador calcula la jugada en su hilo no se admiten más clics
+	private boolean esperandoJugada = false;
+
 	public void idioma() {
 		JSONObject frases = GestorIdiomas.getmGestorIdiomas().getIdiomaActual();
 		BTerminarPartida.setText((String) frases.get("terminar"));
@@ -162,7 +165,7 @@ public class IU_Tablero implements Observer {
 		listenerSonido();
 		listenerSigCancion();
 		Conecta4.getmConecta4().inicializarTablero();
-		Tablero.getmTablero().addObserver(this);
+		Conecta4.getmConecta4().observarTablero(this);
 		colAnimTerminado = true;
 		idioma();
 		volumen.setMin(0);
@@ -320,14 +323,14 @@ public class IU_Tablero implements Observer {
 
 	private void listenerTablero() {
 		//se rellenan todas las posiciones con fichas transparentes para detectar el clic
-		tablero = new Circle[6][9];
+		int filas = panelTablero.getRowConstraints().size();
+		int columnas = panelTablero.getColumnConstraints().size();
+		tablero = new Circle[filas][columnas];
 		fin = false;
 		llena = false;
 		bloqueo = false;
 		finJugador = false;
 		BTerminarPartida.setDisable(false);
-		int filas = panelTablero.getRowConstraints().size();
-		int columnas = panelTablero.getColumnConstraints().size();
 		for (int i = 0; i < filas; i++) {
 			for (int j = 0; j < columnas; j++) {
 				Circle ficha = new Circle();
@@ -419,15 +422,37 @@ public class IU_Tablero implements Observer {
 		}
 	}
 
-	private JSONObject jugar(int pColumna) {
-		JSONObject json = Conecta4.getmConecta4().jugarPartida(pColumna);
+	//LA JUGADA SE CALCULA EN EL HILO DEL ORDENADOR Y EL RESULTADO SE TRATA DE VUELTA EN EL DE LA INTERFAZ
+	private void jugar(int pColumna) {
+		esperandoJugada = true;
+		Conecta4.getmConecta4().jugarPartidaAsync(pColumna).whenCompleteAsync((json, error) -> {
+			esperandoJugada = false;
+			if (terminarPulsado) {
+				return;
+			}
+			if (error != null) {
+				System.out.println("No se ha podido realizar la jugada: " + error);
+			} else {
+				tratarJugada(pColumna, json);
+			}
+		}, Platform::runLater);
+	}
+
+	private void tratarJugada(int pColumna, JSONObject json) {
+		if (json != null && json.get("lineaGanadora") != null) {
+			fin = true;
+			fiveSecondsWonder.stop();
+			ganadoras = json;
+		}
+		if (Conecta4.getmConecta4().getModoJuego().equals("1vs1")) {
+			ganadoras = json;
+		}
 		if (json == null) {
 			oscurecerFondo(pColumna);
 			marcarDesmarcarColumnaLlena(pColumna);
 		} else if ((boolean) json.get("lleno")) {
             terminarPartida();
         }
-		return json;
 	}
 
 	private void listenerTerminarPartida() {
@@ -435,6 +460,7 @@ public class IU_Tablero implements Observer {
 			@Override
 			public void handle(ActionEvent e) {
 				terminarPulsado = true;
+				Conecta4.getmConecta4().cancelarJugada();
 				musicaFondoOff();
 				fadeAMenu();
 			}
@@ -453,9 +479,18 @@ public class IU_Tablero implements Observer {
 		return Conecta4.getmConecta4().getModoJuego();
 	}
 
+	//devuelve la línea ganadora de la última jugada, 0 si nadie ha ganado
+	private long getLineaGanadora() {
+		Object linea = ganadoras.get("lineaGanadora");
+		if (linea == null) {
+			return 0L;
+		}
+		return (long) linea;
+	}
+
 	public ArrayList<Integer> ordenarFichas(HashMap<Integer, JSONObject> fichas) {
 		//Ordenamos las fichas
-		JSONArray ja = (JSONArray) ganadoras.get("posicionesGanadoras");
+		JSONArray ja = Conecta4.getmConecta4().getCoordenadas(getLineaGanadora());
 		boolean igual = false;
 		JSONObject objeto = (JSONObject) ja.get(0);
 		JSONObject objetoB = (JSONObject) ja.get(1);
@@ -482,7 +517,7 @@ public class IU_Tablero implements Observer {
 	}
 
 	private void marcarGanadorasJugador() {
-		if (ganadoras.get("posicionesGanadoras") != null) {
+		if (getLineaGanadora() != 0) {
 			finJugador = true;
 			HashMap<Integer, JSONObject> fichas = new HashMap<>();
 			ArrayList<Integer> empleados = ordenarFichas(fichas);
@@ -490,7 +525,7 @@ public class IU_Tablero implements Observer {
 				JSONObject objetoF = fichas.get(empleados.get(i));
 				Integer xF = (Integer) objetoF.get("x");
 				Integer yF = (Integer) objetoF.get("y");
-				Circle ficha = tablero[5 - xF][yF];
+				Circle ficha = tablero[tablero.length - 1 - xF][yF];
 				if (!turno) {
 					asignarGradiente(false, ficha);
 				} else {
@@ -506,7 +541,7 @@ public class IU_Tablero implements Observer {
 		JSONObject objeto1 = fichas.get(empleados.get(0));
 		Integer x1 = (Integer) objeto1.get("x");
 		Integer y1 = (Integer) objeto1.get("y");
-		Circle ficha1 = tablero[5 - x1][y1];
+		Circle ficha1 = tablero[tablero.length - 1 - x1][y1];
 		Timeline timeline11 = new Timeline();
 		KeyFrame key11 = new KeyFrame(Duration.millis(350),
 				new KeyValue(ficha1.scaleXProperty(), 0.7), new KeyValue(ficha1.scaleYProperty(), 0.7));
@@ -519,7 +554,7 @@ public class IU_Tablero implements Observer {
 		JSONObject objeto2 = fichas.get(empleados.get(1));
 		Integer x2 = (Integer) objeto2.get("x");
 		Integer y2 = (Integer) objeto2.get("y");
-		Circle ficha2 = tablero[5 - x2][y2];
+		Circle ficha2 = tablero[tablero.length - 1 - x2][y2];
 		Timeline timeline21 = new Timeline();
 		KeyFrame key21 = new KeyFrame(Duration.millis(350),
 				new KeyValue(ficha2.scaleXProperty(), 0.7), new KeyValue(ficha2.scaleYProperty(), 0.7));
@@ -532,7 +567,7 @@ public class IU_Tablero implements Observer {
 		JSONObject objeto3 = fichas.get(empleados.get(2));
 		Integer x3 = (Integer) objeto3.get("x");
 		Integer y3 = (Integer) objeto3.get("y");
-		Circle ficha3 = tablero[5 - x3][y3];
+		Circle ficha3 = tablero[tablero.length - 1 - x3][y3];
 		Timeline timeline31 = new Timeline();
 		KeyFrame key31 = new KeyFrame(Duration.millis(350),
 				new KeyValue(ficha3.scaleXProperty(), 0.7), new KeyValue(ficha3.scaleYProperty(), 0.7));
@@ -545,7 +580,7 @@ public class IU_Tablero implements Observer {
 		JSONObject objeto4 = fichas.get(empleados.get(3));
 		Integer x4 = (Integer) objeto4.get("x");
 		Integer y4 = (Integer) objeto4.get("y");
-		Circle ficha4 = tablero[5 - x4][y4];
+		Circle ficha4 = tablero[tablero.length - 1 - x4][y4];
 		Timeline timeline41 = new Timeline();
 		KeyFrame key41 = new KeyFrame(Duration.millis(350),
 				new KeyValue(ficha4.scaleXProperty(), 0.7), new KeyValue(ficha4.scaleYProperty(), 0.7));
@@ -570,7 +605,7 @@ public class IU_Tablero implements Observer {
 	}
 
 	private void marcarGanadorasOrdenador() {
-		if (ganadoras.get("posicionesGanadoras") != null) {
+		if (getLineaGanadora() != 0) {
 			finJugador = true;
 			if (transfomacionColor) {
 				ganadoras.put("haGanadoA", false);
@@ -584,7 +619,7 @@ public class IU_Tablero implements Observer {
 				JSONObject objetoF = fichas.get(empleados.get(i));
 				Integer xF = (Integer) objetoF.get("x");
 				Integer yF = (Integer) objetoF.get("y");
-				Circle ficha = tablero[5 - xF][yF];
+				Circle ficha = tablero[tablero.length - 1 - xF][yF];
 				if (ganadoA) {
 					asignarGradiente(false, ficha);
 				} else if (ganadoB) {
@@ -674,10 +709,15 @@ public class IU_Tablero implements Observer {
 
 	@Override
 	public void update(Observable o, Object arg) {
-		if (!fin) {
+		//LAS FICHAS SE COLOCAN EN EL HILO DEL ORDENADOR, Y LAS ANIMACIONES SÓLO SE PUEDEN TOCAR DESDE EL DE LA INTERFAZ
+		if (!Platform.isFxApplicationThread()) {
+			Platform.runLater(() -> update(o, arg));
+			return;
+		}
+		if (!fin && !terminarPulsado) {
 			quitarSeleccionColumna();
 			JSONObject json = (JSONObject) arg;
-			int fila = 5 - (int) json.get("fila");
+			int fila = tablero.length - 1 - (int) json.get("fila");
 			int columna = (int) json.get("columna");
 			Circle ficha = getFicha(turno);
 			if (!bloqueo) {
@@ -716,7 +756,7 @@ public class IU_Tablero implements Observer {
 			//SE CREA LA ANIMACIÓN
 			Timeline timelineA = new Timeline();
 			KeyFrame keyA = new KeyFrame(Duration.millis(100 + 150 * (pFila)),
-					new KeyValue(a.centerYProperty(), getCoordenadaFila(5 - pFila)));
+					new KeyValue(a.centerYProperty(), getCoordenadaFila(tablero.length - 1 - pFila)));
 			timelineA.getKeyFrames().add(keyA);
 			Timeline timelineB = new Timeline();
 			KeyFrame keyB = new KeyFrame(Duration.millis(1),
@@ -814,20 +854,8 @@ public class IU_Tablero implements Observer {
 
 	public void listenerFicha(Node ficha) {
 		ficha.setOnMouseClicked(event -> {
-			if (event.getClickCount() == 1 && !bloqueo && colAnimTerminado && !finJugador) {
-				JSONObject json = jugar(columnaJugador);
-				JSONArray ja = null;
-				if (json != null) {
-					ja = (JSONArray) json.get("posicionesGanadoras");
-				}
-				if (ja != null) {
-					fin = true;
-					fiveSecondsWonder.stop();
-					ganadoras = json;
-				}
-				if (Conecta4.getmConecta4().getModoJuego().equals("1vs1")) {
-					ganadoras = json;
-				}
+			if (event.getClickCount() == 1 && !bloqueo && colAnimTerminado && !finJugador && !esperandoJugada) {
+				jugar(columnaJugador);
 			}
 		});
 	}
@@ -874,7 +902,7 @@ public class IU_Tablero implements Observer {
 			ca.setBrightness(0);
 			llena = false;
 		}
-		for (int i = 0; i < 6; i++) {
+		for (int i = 0; i < tablero.length; i++) {
 			Circle ficha = tablero[i][col];
 			Timeline t = new Timeline();
 			KeyFrame kf = new KeyFrame(Duration.millis(5), new KeyValue(ficha.effectProperty(), ca, Interpolator.EASE_IN));
@@ -1,6 +1,12 @@
 package packControlador;
 
 import junit.framework.TestCase;
+import org.json.simple.JSONObject;
+import packModelo.Juego;
+import packModelo.OrdenadorE;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 public class Conecta4Test extends TestCase {
 
@@ -23,4 +29,39 @@ public class Conecta4Test extends TestCase {
 		Conecta4.getmConecta4().setModoJuego("Algo");
 		assertEquals("1vs1", Conecta4.getmConecta4().getModoJuego());
 	}
-}
\ No newline at end of file
+
+	public void testJugarPartidaAsync() throws Exception {
+		Juego juego = new Juego();
+		GestorPartidas gestor = new GestorPartidas(juego);
+		Conecta4 conecta4 = new Conecta4(gestor);
+		conecta4.setModoJuego("Ordenador modo Dificil");
+		JSONObject json = conecta4.jugarPartidaAsync(4).get(5, TimeUnit.SECONDS);
+		assertEquals(2, juego.getTablero().getNumJugadas());
+		assertFalse((boolean) json.get("haGanadoA"));
+		//LAS JUGADAS SE HACEN EN ORDEN: CON DOS JUGADORES CADA UNA PONE UNA FICHA HASTA LLENAR LA COLUMNA
+		conecta4.inicializarTablero();
+		assertEquals(0, juego.getTablero().getNumJugadas());
+		conecta4.setModoJuego("1vs1");
+		for (int i = 0; i < juego.getTablero().getFilas(); i++) {
+			conecta4.jugarPartidaAsync(0);
+		}
+		assertNull(conecta4.jugarPartidaAsync(0).get(5, TimeUnit.SECONDS));
+		assertEquals(juego.getTablero().getFilas(), juego.getTablero().getNumJugadas());
+	}
+
+	public void testCancelarJugada() throws Exception {
+		Juego juego = new Juego();
+		GestorPartidas gestor = new GestorPartidas(juego);
+		Conecta4 conecta4 = new Conecta4(gestor);
+		//SIN LÍMITE DE TIEMPO NO TERMINARÍA NUNCA
+		gestor.setModoJuego(new OrdenadorE(OrdenadorE.PROFUNDIDAD_MAXIMA));
+		CompletableFuture<JSONObject> jugada = conecta4.jugarPartidaAsync(4);
+		Thread.sleep(100);
+		assertFalse(jugada.isDone());
+		conecta4.cancelarJugada();
+		assertTrue(jugada.isCancelled());
+		//AL EMPEZAR OTRA PARTIDA SE ESPERA A QUE LA JUGADA CANCELADA TERMINE
+		conecta4.inicializarTablero();
+		assertEquals(0, juego.getTablero().getNumJugadas());
+	}
+}
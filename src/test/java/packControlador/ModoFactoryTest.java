@@ -2,6 +2,7 @@ package packControlador;
 
 import junit.framework.TestCase;
 import packModelo.Modo;
+import packModelo.OrdenadorE;
 
 import static packControlador.ModoFactory.getmModoFactory;
 
@@ -17,5 +18,23 @@ public class ModoFactoryTest extends TestCase {
 		Modo m3 = getmModoFactory().createModo("Ordenador modo Facil");
 		assertNotNull(m3);
 		assertEquals(m3.getNombre(), "Ordenador modo Facil");
+		Modo m4 = getmModoFactory().createModo("Ordenador modo Experto");
+		assertNotNull(m4);
+		assertEquals(m4.getNombre(), "Ordenador modo Experto");
+		Modo m5 = getmModoFactory().createModo("Ordenador modo Montecarlo");
+		assertNotNull(m5);
+		assertEquals(m5.getNombre(), "Ordenador modo Montecarlo");
 	}
-}
\ No newline at end of file
+
+	public void testCreateNivel() {
+		for (int nivel = 1; nivel <= OrdenadorE.NIVEL_MAXIMO; nivel++) {
+			Modo m = getmModoFactory().createModo("Ordenador nivel " + nivel);
+			assertTrue(m instanceof OrdenadorE);
+			assertEquals("Ordenador nivel " + nivel, m.getNombre());
+		}
+		//LOS NIVELES QUE NO EXISTEN SE JUEGAN ENTRE DOS
+		assertEquals("1vs1", getmModoFactory().createModo("Ordenador nivel 0").getNombre());
+		assertEquals("1vs1", getmModoFactory().createModo("Ordenador nivel 11").getNombre());
+		assertEquals("1vs1", getmModoFactory().createModo("Ordenador nivel x").getNombre());
+	}
+}
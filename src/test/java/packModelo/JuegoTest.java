@@ -0,0 +1,80 @@
+package packModelo;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class JuegoTest {
+
+	@Test
+	public void partidasIndependientes() {
+		Juego j1 = new Juego();
+		Juego j2 = new Juego();
+		assertNotSame(j1.getTablero(), j2.getTablero());
+		assertNotSame(Tablero.getmTablero(), j1.getTablero());
+		j1.jugarPartida(0);
+		assertTrue(j1.getTablero().esColor(0, 0, true));
+		assertFalse(j2.getTablero().esColor(0, 0, true));
+		//EL MODO SE JUEGA SOBRE EL TABLERO DE SU PARTIDA
+		j2.setModoJuego(new OrdenadorD());
+		j2.jugarPartida(4);
+		assertTrue(j2.getTablero().esColor(0, 4, true));
+		assertEquals(2, j2.getTablero().getBits().getNumFichas());
+		assertEquals(1, j1.getTablero().getBits().getNumFichas());
+	}
+
+	@Test
+	public void partidasEnParalelo() throws Exception {
+		ExecutorService hilos = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+		List<Future<Integer>> partidas = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			long semilla = i;
+			partidas.add(hilos.submit(() -> jugarPartidaCompleta(semilla)));
+		}
+		for (Future<Integer> partida : partidas) {
+			int fichas = partida.get();
+			assertTrue(fichas >= 7 && fichas <= 54);
+		}
+		hilos.shutdown();
+	}
+
+	private int jugarPartidaCompleta(long pSemilla) {
+		Random r = new Random(pSemilla);
+		Juego juego = new Juego();
+		juego.setModoJuego(new OrdenadorF());
+		ResultadoJugada res;
+		do {
+			res = juego.jugarPartida(r.nextInt(9));
+		} while (res == null || !(res.isLleno() || res.isHaGanadoA() || res.isHaGanadoB()));
+		return juego.getTablero().getBits().getNumFichas();
+	}
+
+	@Test
+	public void cambiarModoCierraSusHilos() {
+		Juego juego = new Juego();
+		OrdenadorM montecarlo = new OrdenadorM(100);
+		montecarlo.setHilos(3);
+		ForkJoinPool poolM = montecarlo.getPool();
+		juego.setModoJuego(montecarlo);
+		//VOLVER A PONER EL MISMO MODO NO LO CIERRA
+		juego.setModoJuego(montecarlo);
+		assertFalse(poolM.isShutdown());
+		OrdenadorE experto = new OrdenadorE(4);
+		experto.setHilos(2);
+		ForkJoinPool poolE = experto.getPool();
+		juego.setModoJuego(experto);
+		assertTrue(poolM.isShutdown());
+		assertEquals(1, montecarlo.getHilos());
+		juego.setModoJuego(new OvO());
+		assertTrue(poolE.isShutdown());
+		assertEquals(1, experto.getHilos());
+	}
+}
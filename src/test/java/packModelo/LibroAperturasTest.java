@@ -0,0 +1,116 @@
+package packModelo;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class LibroAperturasTest {
+
+	@Rule
+	public TemporaryFolder carpeta = new TemporaryFolder();
+
+	private File escribir(List<LibroAperturas.Entrada> pEntradas) throws IOException {
+		File fichero = carpeta.newFile("libro.bin");
+		LibroAperturas.escribir(fichero, 6, 9, 4, pEntradas);
+		return fichero;
+	}
+
+	@Test
+	public void escribirYBuscar() throws IOException {
+		List<LibroAperturas.Entrada> entradas = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			//CLAVES DESORDENADAS Y CON SIGNO
+			long clave = (i * 0x9E3779B97F4A7C15L) | 1;
+			entradas.add(new LibroAperturas.Entrada(clave, i % 9, i - 500, i % 256));
+		}
+		File fichero = escribir(entradas);
+		assertEquals(LibroAperturas.BYTES_CABECERA + 1000 * LibroAperturas.BYTES_ENTRADA, fichero.length());
+		LibroAperturas libro = LibroAperturas.abrir(fichero);
+		assertEquals(1000, libro.getEntradas());
+		assertEquals(9, libro.getColumnas());
+		for (LibroAperturas.Entrada entrada : entradas) {
+			int i = libro.buscar(entrada.getClave());
+			assertTrue(i >= 0);
+			assertEquals(entrada.getColumna(), libro.getColumna(i));
+			assertEquals(entrada.getValor(), libro.getValor(i));
+			assertEquals(entrada.getProfundidad(), libro.getProfundidad(i));
+		}
+		assertEquals(-1, libro.buscar(0L));
+		assertEquals(-1, libro.buscar(2L));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void clavesRepetidas() throws IOException {
+		escribir(Arrays.asList(new LibroAperturas.Entrada(5L, 1, 0, 1), new LibroAperturas.Entrada(5L, 2, 0, 1)));
+	}
+
+	@Test(expected = IOException.class)
+	public void ficheroNoValido() throws IOException {
+		File fichero = carpeta.newFile("otro.bin");
+		try (FileOutputStream salida = new FileOutputStream(fichero)) {
+			salida.write(new byte[40]);
+		}
+		LibroAperturas.abrir(fichero);
+	}
+
+	@Test
+	public void consultarDesdeLosModos() throws IOException {
+		Tablero tablero = new Tablero();
+		tablero.jugarSilencioso(4);
+		//LA BÚSQUEDA NUNCA JUGARÍA EN LA ESQUINA
+		File fichero = escribir(Arrays.asList(new LibroAperturas.Entrada(tablero.getClave(), 0, 0, 20)));
+		LibroAperturas libro = LibroAperturas.abrir(fichero);
+		assertEquals(0, libro.consultar(tablero));
+		assertEquals(-1, libro.consultar(new Tablero()));
+		assertEquals(-1, libro.consultar(new Tablero(7, 9, 4)));
+
+		OrdenadorE experto = new OrdenadorE(6);
+		experto.setLibro(libro);
+		assertEquals(0, experto.elegirColumna(tablero));
+		assertTrue(experto.isJugadaDeLibro());
+		assertEquals(0, experto.getNodos());
+		tablero.jugarSilencioso(4);
+		assertNotEquals(-1, experto.elegirColumna(tablero));
+		assertFalse(experto.isJugadaDeLibro());
+
+		Tablero.getmTablero().inicializarTablero();
+		OrdenadorM montecarlo = new OrdenadorM(500, 3);
+		montecarlo.setLibro(libro);
+		ResultadoJugada res = montecarlo.realizarJugada(4);
+		assertEquals(0, res.getColumna());
+		assertEquals(0, montecarlo.getIteracionesHechas());
+		//EL TURNO SIGUIENTE YA NO ESTÁ EN EL LIBRO Y SE BUSCA CON UN ÁRBOL NUEVO
+		montecarlo.realizarJugada(4);
+		assertEquals(500, montecarlo.getIteracionesHechas());
+		Tablero.getmTablero().inicializarTablero();
+	}
+
+	@Test
+	public void simetricas() throws IOException {
+		Tablero tablero = new Tablero();
+		tablero.jugarSilencioso(1);
+		Tablero simetrico = new Tablero();
+		simetrico.jugarSilencioso(7);
+		assertEquals(tablero.getClave(), simetrico.getClaveEspejo());
+		//SÓLO SE GUARDA LA DE MENOR CLAVE, Y LA OTRA SE CONTESTA CON LA COLUMNA REFLEJADA
+		Tablero menor = tablero.getClave() < simetrico.getClave() ? tablero : simetrico;
+		Tablero mayor = menor == tablero ? simetrico : tablero;
+		LibroAperturas libro = LibroAperturas.abrir(escribir(Arrays.asList(
+				new LibroAperturas.Entrada(menor.getClave(), 2, 0, 20))));
+		assertEquals(2, libro.consultar(menor));
+		assertEquals(6, libro.consultar(mayor));
+		OrdenadorE experto = new OrdenadorE(6);
+		experto.setLibro(libro);
+		assertEquals(6, experto.elegirColumna(mayor));
+		assertTrue(experto.isJugadaDeLibro());
+	}
+}
@@ -0,0 +1,74 @@
+package packModelo;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+
+public class OrdenJugadasTest extends TestCase {
+
+	private TableroBits bits;
+	private OrdenJugadas orden;
+
+	public void setUp() {
+		bits = TableroBits.crear(6, 9, 4);
+		orden = new OrdenJugadas(6, 9);
+	}
+
+	private int[] ordenar(boolean pColor, int pAltura, int pPrimera) {
+		int n = orden.ordenar(bits, pColor, pAltura, pPrimera);
+		return Arrays.copyOf(orden.getJugadas(pAltura), n);
+	}
+
+	public void testCentro() {
+		assertTrue(Arrays.equals(new int[]{4, 5, 3, 6, 2, 7, 1, 8, 0}, ordenar(true, 0, -1)));
+		//LA PRIMERA QUE SE PIDE VA DELANTE Y LAS LLENAS NO ESTÁN
+		for (int i = 0; i < 6; i++) {
+			bits.poner(5, i % 2 == 0);
+		}
+		assertTrue(Arrays.equals(new int[]{0, 4, 3, 6, 2, 7, 1, 8}, ordenar(true, 0, 0)));
+	}
+
+	public void testUrgentes() {
+		bits.poner(1, false);
+		bits.poner(2, false);
+		bits.poner(3, false);
+		//LAS AZULES GANAN EN 0 Y EN 4, Y LAS ROJAS TIENEN QUE TAPAR UNA DE LAS DOS
+		int[] azules = ordenar(false, 0, 6);
+		assertEquals(0, azules[0]);
+		assertEquals(4, azules[1]);
+		assertEquals(6, azules[2]);
+		int[] rojas = ordenar(true, 0, -1);
+		assertEquals(0, rojas[0]);
+		assertEquals(4, rojas[1]);
+		assertEquals(9, rojas.length);
+	}
+
+	public void testAsesinasEHistoria() {
+		orden.corte(true, 2, 8, 0, 3, 4);
+		orden.corte(true, 2, 0, 0, 3, 0);
+		//LAS ASESINAS VAN DETRÁS DE LA PRIMERA, LA ÚLTIMA ANTES
+		assertTrue(Arrays.equals(new int[]{4, 0, 8}, Arrays.copyOf(ordenar(true, 2, 4), 3)));
+		//EN OTRA ALTURA SÓLO CUENTA LA HISTORIA, Y SÓLO LA DEL JUGADOR
+		orden.corte(true, 5, 7, 0, 6, 1);
+		assertTrue(Arrays.equals(new int[]{7, 8, 0}, Arrays.copyOf(ordenar(true, 3, -1), 3)));
+		assertEquals(4, ordenar(false, 3, -1)[0]);
+		//CONTADORES
+		assertEquals(3, orden.getCortes());
+		assertEquals(1, orden.getCortesPrimera());
+		orden.nuevaBusqueda();
+		assertEquals(0, orden.getCortes());
+		//LAS ASESINAS SE OLVIDAN Y LA HISTORIA SE QUEDA, A LA MITAD
+		assertTrue(Arrays.equals(new int[]{7, 8, 0}, Arrays.copyOf(ordenar(true, 2, -1), 3)));
+	}
+
+	public void testBusqueda() {
+		Tablero t = new Tablero();
+		t.introducirFicha(4, true);
+		OrdenadorE o = new OrdenadorE(8);
+		o.elegirColumna(t);
+		assertTrue(o.getCortes() > 0);
+		assertTrue(o.getCortesPrimera() <= o.getCortes());
+		//CON BUEN ORDEN LA MAYORÍA DE LOS CORTES LOS DA LA PRIMERA COLUMNA
+		assertTrue(o.getTasaCortesPrimera() > 0.5);
+	}
+}
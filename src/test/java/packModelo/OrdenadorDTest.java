@@ -98,4 +98,29 @@ public class OrdenadorDTest extends TestCase {
 				t.getColindantes(0, 1, false) == 0 && t.getColindantes(0, 4, false) == 1 && t.getColindantes(0, 7, false) == 0 ||
 				t.getColindantes(0, 1, false) == 0 && t.getColindantes(0, 4, false) == 0 && t.getColindantes(0, 7, false) == 1);
 	}
-}
\ No newline at end of file
+
+	public void testJugadaTactica() {
+		//EL JUGADOR TIENE TRES CON UN HUECO, QUE NO SON SEGUIDAS
+		t.introducirFicha(0, true);
+		t.introducirFicha(1, true);
+		t.introducirFicha(8, false);
+		o.jugar(3);
+		assertTrue(t.esColor(0, 2, false));
+		//EL ORDENADOR PUEDE GANAR EN DIAGONAL Y PREFIERE GANAR A TAPAR
+		t.inicializarTablero();
+		t.introducirFicha(0, false);
+		t.introducirFicha(1, true);
+		t.introducirFicha(1, false);
+		t.introducirFicha(2, true);
+		t.introducirFicha(2, true);
+		t.introducirFicha(2, false);
+		t.introducirFicha(3, true);
+		t.introducirFicha(3, true);
+		t.introducirFicha(3, true);
+		t.introducirFicha(6, true);
+		t.introducirFicha(7, true);
+		ResultadoJugada res = o.realizarJugada(5);
+		assertTrue(res.isHaGanadoB());
+		assertTrue(t.esColor(3, 3, false));
+	}
+}
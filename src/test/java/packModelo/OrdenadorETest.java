@@ -0,0 +1,326 @@
+package packModelo;
+
+import junit.framework.TestCase;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+public class OrdenadorETest extends TestCase {
+
+	private Tablero t;
+	private OrdenadorE o;
+
+	public void setUp() {
+		t = new Tablero();
+		o = new OrdenadorE();
+		o.setTablero(t);
+	}
+
+	public void testJugar() {
+		//EL ORDENADOR VA A HACER CUATRO EN RAYA
+		t.introducirFicha(2, false);
+		t.introducirFicha(2, false);
+		t.introducirFicha(2, false);
+		ResultadoJugada res = o.realizarJugada(8);
+		assertTrue(t.esColor(3, 2, false));
+		assertTrue(res.isHaGanadoB());
+		assertEquals(4, t.getCoordenadas(res.getLineaGanadora()).size());
+		//EL JUGADOR VA A HACER CUATRO EN RAYA
+		t.inicializarTablero();
+		t.introducirFicha(0, true);
+		t.introducirFicha(1, true);
+		t.introducirFicha(8, false);
+		o.realizarJugada(2);
+		assertTrue(t.esColor(0, 3, false));
+		//DOS AMENAZAS A LA VEZ: EL ORDENADOR LAS EVITA ANTES DE QUE EXISTAN
+		t.inicializarTablero();
+		t.introducirFicha(3, true);
+		t.introducirFicha(8, false);
+		o.realizarJugada(4);
+		assertTrue(t.esColor(0, 2, false) || t.esColor(0, 5, false));
+		//COLUMNA LLENA
+		t.inicializarTablero();
+		for (int i = 0; i < t.getFilas(); i++) {
+			t.introducirFicha(0, i % 2 == 0);
+		}
+		assertNull(o.realizarJugada(0));
+	}
+
+	public void testBuscarColumna() {
+		t.introducirFicha(4, true);
+		t.introducirFicha(4, false);
+		t.introducirFicha(3, true);
+		TableroBits bits = t.getBits();
+		int col = o.buscarColumna(bits, false);
+		assertTrue(col >= 0 && col < t.getColumnas());
+		//LA BUSQUEDA DEJA EL TABLERO COMO ESTABA
+		assertEquals(3, bits.getNumFichas());
+		assertTrue(t.esColor(0, 4, true));
+		assertTrue(t.esColor(1, 4, false));
+		assertTrue(t.esColor(0, 3, true));
+		assertEquals(0, bits.getAltura(0));
+		assertTrue(o.getNodos() > 0);
+		assertTrue(o.getNodosPorSegundo() >= 0);
+	}
+
+	public void testPartidaCompleta() {
+		//EL ORDENADOR NO PIERDE CONTRA JUGADAS AL AZAR
+		Random r = new Random(7);
+		for (int partida = 0; partida < 5; partida++) {
+			t.inicializarTablero();
+			ResultadoJugada res;
+			do {
+				res = o.realizarJugada(r.nextInt(t.getColumnas()));
+			} while (res == null || !(res.isLleno() || res.isHaGanadoA() || res.isHaGanadoB()));
+			assertFalse(res.isHaGanadoA());
+		}
+	}
+
+	public void testProfundidad() {
+		OrdenadorE corto = new OrdenadorE(2);
+		assertEquals(2, corto.getProfundidad());
+		corto.setProfundidad(5);
+		assertEquals(5, corto.getProfundidad());
+		try {
+			corto.setProfundidad(0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			//PROFUNDIDAD NO VÁLIDA
+		}
+	}
+
+	public void testTableroGrande() {
+		Tablero grande = new Tablero(10, 12, 5);
+		o.setTablero(grande);
+		o.setProfundidad(4);
+		for (int i = 0; i < 4; i++) {
+			grande.introducirFicha(5, false);
+		}
+		o.realizarJugada(0);
+		assertTrue(grande.esColor(4, 5, false));
+	}
+
+	public void testTiempoMaximo() {
+		OrdenadorE rapido = new OrdenadorE(OrdenadorE.PROFUNDIDAD_MAXIMA);
+		rapido.setTablero(t);
+		rapido.setTiempoMaximo(100);
+		t.introducirFicha(4, true);
+		int col = rapido.buscarColumna(t.getBits(), false);
+		assertTrue(col >= 0 && col < t.getColumnas());
+		assertTrue(rapido.getTiempoBusqueda() < 1000);
+		assertTrue(rapido.getProfundidadAlcanzada() >= 1);
+		assertTrue(rapido.getProfundidadAlcanzada() < t.getFilas() * t.getColumnas());
+		assertEquals(1, t.getBits().getNumFichas());
+		//AUNQUE HAYA TIEMPO, UNA VICTORIA SEGURA TERMINA LA BÚSQUEDA
+		t.introducirFicha(2, false);
+		t.introducirFicha(2, false);
+		t.introducirFicha(2, false);
+		rapido.setTiempoMaximo(0);
+		assertEquals(2, rapido.buscarColumna(t.getBits(), false));
+		assertEquals(1, rapido.getProfundidadAlcanzada());
+		try {
+			rapido.setTiempoMaximo(-1);
+			fail();
+		} catch (IllegalArgumentException e) {
+			//TIEMPO NO VÁLIDO
+		}
+	}
+
+	public void testCancelar() throws Exception {
+		OrdenadorE lento = new OrdenadorE(OrdenadorE.PROFUNDIDAD_MAXIMA);
+		lento.setTablero(t);
+		int[] columna = {-1};
+		//CANCELADA ANTES DE EMPEZAR: LA BÚSQUEDA NO SE COME LA CANCELACIÓN
+		lento.cancelar();
+		Thread busqueda = new Thread(() -> columna[0] = lento.buscarColumna(t.getBits(), false));
+		busqueda.start();
+		busqueda.join(5000);
+		assertFalse(busqueda.isAlive());
+		assertTrue(columna[0] >= 0 && columna[0] < t.getColumnas());
+		//CANCELADA MIENTRAS BUSCA
+		lento.reanudar();
+		columna[0] = -1;
+		busqueda = new Thread(() -> columna[0] = lento.buscarColumna(t.getBits(), false));
+		busqueda.start();
+		while (!lento.isBuscando() && busqueda.isAlive()) {
+			Thread.yield();
+		}
+		assertTrue(busqueda.isAlive());
+		lento.cancelar();
+		busqueda.join(5000);
+		assertFalse(busqueda.isAlive());
+		assertTrue(columna[0] >= 0 && columna[0] < t.getColumnas());
+		assertEquals(0, t.getBits().getNumFichas());
+	}
+
+	public void testVariosHilos() {
+		OrdenadorE paralelo = new OrdenadorE(9);
+		paralelo.setHilos(4);
+		assertEquals(4, paralelo.getHilos());
+		paralelo.setTablero(t);
+		//BLOQUEA IGUAL QUE CON UN HILO
+		t.introducirFicha(0, true);
+		t.introducirFicha(1, true);
+		t.introducirFicha(8, false);
+		paralelo.realizarJugada(2);
+		assertTrue(t.esColor(0, 3, false));
+		assertEquals(5, t.getBits().getNumFichas());
+		assertTrue(paralelo.getProfundidadAlcanzada() >= 9);
+		//LOS AYUDANTES BUSCAN SOBRE COPIAS
+		t.inicializarTablero();
+		t.introducirFicha(4, true);
+		long clave = t.getClave();
+		int col = paralelo.elegirColumna(t);
+		assertTrue(col >= 0 && col < t.getColumnas());
+		assertEquals(clave, t.getClave());
+		assertTrue(paralelo.getNodos() > 0);
+		try {
+			paralelo.setHilos(0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			//NÚMERO DE HILOS NO VÁLIDO
+		}
+	}
+
+	public void testCambiarPool() {
+		OrdenadorE paralelo = new OrdenadorE(4);
+		paralelo.setHilos(3);
+		ForkJoinPool propio = paralelo.getPool();
+		//CON LOS MISMOS HILOS SE SIGUE USANDO, Y AL CAMBIARLO SE CIERRA
+		paralelo.setHilos(3);
+		assertSame(propio, paralelo.getPool());
+		paralelo.setHilos(2);
+		assertTrue(propio.isShutdown());
+		assertFalse(paralelo.getPool().isShutdown());
+		//EL QUE SE PASA DE FUERA NO SE CIERRA NUNCA
+		ForkJoinPool ajeno = new ForkJoinPool(1);
+		ForkJoinPool segundo = paralelo.getPool();
+		paralelo.setHilos(2, ajeno);
+		assertTrue(segundo.isShutdown());
+		paralelo.setHilos(2);
+		assertNotSame(ajeno, paralelo.getPool());
+		assertFalse(ajeno.isShutdown());
+		paralelo.setHilos(1);
+		assertNull(paralelo.getPool());
+		ajeno.shutdown();
+	}
+
+	public void testPensarEnEspera() throws Exception {
+		OrdenadorE pensador = new OrdenadorE(8);
+		pensador.setTablero(t);
+		pensador.setPensarEnEspera(true);
+		pensador.realizarJugada(4);
+		long clave = t.getClave();
+		//SE PIENSA SOBRE UNA COPIA, SIN TOCAR EL TABLERO, Y CON PROFUNDIDAD 8 TERMINA ENSEGUIDA
+		esperar(pensador);
+		assertEquals(clave, t.getClave());
+		int prevista = pensador.getJugadaPrevista();
+		assertTrue(prevista >= 0 && prevista < t.getColumnas());
+		//SI EL HUMANO JUEGA LO PREVISTO SE CONTESTA CON LO PENSADO
+		pensador.realizarJugada(prevista);
+		assertTrue(pensador.isJugadaPensada());
+		assertEquals(8, pensador.getProfundidadAlcanzada());
+		assertTrue(pensador.getNodos() > 0);
+		assertEquals(4, t.getBits().getNumFichas());
+		//SI NO, SE VUELVE A BUSCAR
+		esperar(pensador);
+		int otra = (pensador.getJugadaPrevista() + 1) % t.getColumnas();
+		pensador.realizarJugada(otra);
+		assertFalse(pensador.isJugadaPensada());
+		assertEquals(6, t.getBits().getNumFichas());
+		//CANCELAR PARA EL PENSAMIENTO AUNQUE NO TENGA LÍMITE
+		pensador.setProfundidad(OrdenadorE.PROFUNDIDAD_MAXIMA);
+		pensador.setTiempoMaximo(100);
+		pensador.realizarJugada(0);
+		assertTrue(pensador.isPensando());
+		pensador.cancelar();
+		esperar(pensador);
+		pensador.setPensarEnEspera(false);
+		pensador.setProfundidad(4);
+		pensador.reanudar();
+		pensador.realizarJugada(0);
+		assertFalse(pensador.isPensando());
+		//AL CERRAR EL MODO SE PARA DE PENSAR Y SE CIERRA EL HILO
+		pensador.setPensarEnEspera(true);
+		pensador.setProfundidad(OrdenadorE.PROFUNDIDAD_MAXIMA);
+		t.inicializarTablero();
+		pensador.realizarJugada(4);
+		assertTrue(pensador.isPensando());
+		ExecutorService hilo = pensador.getEspera();
+		pensador.cerrar();
+		assertFalse(pensador.isPensando());
+		assertTrue(hilo.isShutdown());
+		assertNull(pensador.getEspera());
+	}
+
+	public void testNiveles() {
+		long nodosAnterior = 0;
+		for (int nivel = 1; nivel <= OrdenadorE.NIVEL_MAXIMO; nivel++) {
+			OrdenadorE o = OrdenadorE.crearNivel(nivel);
+			assertTrue(o.getMaxNodos() > nodosAnterior);
+			assertTrue(o.getRuido() >= 0);
+			nodosAnterior = o.getMaxNodos();
+			//COMO MUCHO SE PASA DEL MÁXIMO DE NODOS EN LAS VICTORIAS DE UN MISMO NODO, QUE SE CUENTAN SIN COMPROBARLO
+			t.inicializarTablero();
+			t.introducirFicha(4, true);
+			o.elegirColumna(t);
+			assertTrue(o.getNodos() <= o.getMaxNodos() + t.getColumnas());
+			assertFalse(o.isPensarEnEspera());
+		}
+		//HASTA EL NIVEL MÁS BAJO VE LA VICTORIA INMEDIATA, PORQUE EL RUIDO NO TOCA LAS VICTORIAS
+		OrdenadorE facil = OrdenadorE.crearNivel(1);
+		facil.setTablero(t);
+		t.inicializarTablero();
+		t.introducirFicha(2, false);
+		t.introducirFicha(2, false);
+		t.introducirFicha(2, false);
+		assertTrue(facil.realizarJugada(8).isHaGanadoB());
+		try {
+			OrdenadorE.crearNivel(OrdenadorE.NIVEL_MAXIMO + 1);
+			fail();
+		} catch (IllegalArgumentException e) {
+			//NIVEL NO VÁLIDO
+		}
+	}
+
+	public void testRuido() {
+		//CON MUCHO RUIDO LA PRIMERA JUGADA CAMBIA DE UNA PARTIDA A OTRA, SIN RUIDO ES SIEMPRE LA MISMA
+		OrdenadorE ruidoso = new OrdenadorE(2);
+		ruidoso.setRuido(100000);
+		OrdenadorE exacto = new OrdenadorE(2);
+		java.util.Set<Integer> columnas = new java.util.HashSet<>();
+		int columna = exacto.elegirColumna(t);
+		for (int i = 0; i < 50; i++) {
+			columnas.add(ruidoso.elegirColumna(t));
+			assertEquals(columna, exacto.elegirColumna(t));
+		}
+		assertTrue(columnas.size() > 1);
+	}
+
+	public void testSimetria() {
+		//LA TABLA GUARDA UNA VEZ CADA PAREJA DE SIMÉTRICAS, ASÍ QUE LA SIMÉTRICA DE LO YA BUSCADO SALE CASI GRATIS
+		t.introducirFicha(1, true);
+		t.introducirFicha(2, false);
+		t.introducirFicha(2, true);
+		Tablero simetrico = new Tablero();
+		simetrico.introducirFicha(7, true);
+		simetrico.introducirFicha(6, false);
+		simetrico.introducirFicha(6, true);
+		assertEquals(t.getClave(), simetrico.getClaveEspejo());
+		OrdenadorE o = new OrdenadorE(10);
+		o.elegirColumna(t);
+		long nodos = o.getNodos();
+		int valor = o.getValor();
+		o.elegirColumna(simetrico);
+		assertTrue(o.getNodos() * 2 < nodos);
+		assertEquals(valor, o.getValor());
+	}
+
+	private static void esperar(OrdenadorE pOrdenador) throws InterruptedException {
+		for (int i = 0; i < 500 && pOrdenador.isPensando(); i++) {
+			Thread.sleep(10);
+		}
+		assertFalse(pOrdenador.isPensando());
+	}
+}
@@ -0,0 +1,134 @@
+package packModelo;
+
+import junit.framework.TestCase;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class OrdenadorMTest extends TestCase {
+
+	private Tablero t;
+	private OrdenadorM o;
+
+	public void setUp() {
+		t = new Tablero();
+		o = new OrdenadorM(5000, 1L);
+		o.setTablero(t);
+	}
+
+	public void testJugar() {
+		//EL ORDENADOR VA A HACER CUATRO EN RAYA
+		t.introducirFicha(2, false);
+		t.introducirFicha(2, false);
+		t.introducirFicha(2, false);
+		ResultadoJugada res = o.realizarJugada(8);
+		assertTrue(res.isHaGanadoB());
+		assertTrue(t.esColor(3, 2, false));
+		//EL JUGADOR VA A HACER CUATRO EN RAYA
+		t.inicializarTablero();
+		t.introducirFicha(0, true);
+		t.introducirFicha(1, true);
+		t.introducirFicha(8, false);
+		o.realizarJugada(2);
+		assertTrue(t.esColor(0, 3, false));
+		assertEquals(5000, o.getIteracionesHechas());
+		//COLUMNA LLENA
+		t.inicializarTablero();
+		for (int i = 0; i < t.getFilas(); i++) {
+			t.introducirFicha(0, i % 2 == 0);
+		}
+		assertNull(o.realizarJugada(0));
+	}
+
+	public void testReutilizarArbol() {
+		o.realizarJugada(4);
+		assertEquals(5000, o.getVisitasRaiz());
+		//EL SIGUIENTE TURNO EMPIEZA CON LAS VISITAS QUE YA TENÍA EL SUBÁRBOL
+		o.realizarJugada(4);
+		assertTrue(o.getVisitasRaiz() > 5000);
+		//EN OTRA PARTIDA SE EMPIEZA DE CERO
+		t.inicializarTablero();
+		o.realizarJugada(0);
+		assertEquals(5000, o.getVisitasRaiz());
+		assertEquals(2, t.getBits().getNumFichas());
+	}
+
+	public void testCambiarPool() {
+		OrdenadorM paralelo = new OrdenadorM(100);
+		paralelo.setHilos(3);
+		ForkJoinPool primero = paralelo.getPool();
+		//CON LOS MISMOS HILOS SE SIGUE USANDO, Y AL CAMBIARLO SE CIERRA
+		paralelo.setHilos(3);
+		assertSame(primero, paralelo.getPool());
+		paralelo.setHilos(2);
+		assertTrue(primero.isShutdown());
+		ForkJoinPool segundo = paralelo.getPool();
+		assertFalse(segundo.isShutdown());
+		paralelo.setHilos(1);
+		assertTrue(segundo.isShutdown());
+		assertNull(paralelo.getPool());
+	}
+
+	public void testVariosHilos() {
+		o.setHilos(4);
+		assertEquals(4, o.getHilos());
+		t.introducirFicha(0, true);
+		t.introducirFicha(1, true);
+		t.introducirFicha(8, false);
+		long clave = t.getClave();
+		o.realizarJugada(2);
+		assertTrue(t.esColor(0, 3, false));
+		assertEquals(5000, o.getIteracionesHechas());
+		t.deshacer();
+		t.deshacer();
+		assertEquals(clave, t.getClave());
+	}
+
+	public void testPartidaCompleta() {
+		//EL ORDENADOR NO PIERDE CONTRA JUGADAS AL AZAR
+		Random r = new Random(3);
+		for (int partida = 0; partida < 3; partida++) {
+			t.inicializarTablero();
+			ResultadoJugada res;
+			do {
+				res = o.realizarJugada(r.nextInt(t.getColumnas()));
+			} while (res == null || !(res.isLleno() || res.isHaGanadoA() || res.isHaGanadoB()));
+			assertFalse(res.isHaGanadoA());
+		}
+	}
+
+	public void testTiempoYCancelar() throws Exception {
+		OrdenadorM largo = new OrdenadorM(Integer.MAX_VALUE, 2L);
+		largo.setTablero(t);
+		largo.setTiempoMaximo(100);
+		int col = largo.buscarColumna(t.getBits(), true);
+		assertTrue(col >= 0 && col < t.getColumnas());
+		assertTrue(largo.getTiempoBusqueda() < 1000);
+		largo.setTiempoMaximo(0);
+		int[] columna = {-1};
+		Thread busqueda = new Thread(() -> columna[0] = largo.buscarColumna(t.getBits(), true));
+		busqueda.start();
+		while (!largo.isBuscando() && busqueda.isAlive()) {
+			Thread.yield();
+		}
+		assertTrue(busqueda.isAlive());
+		largo.cancelar();
+		busqueda.join(5000);
+		assertFalse(busqueda.isAlive());
+		assertTrue(columna[0] >= 0);
+		//LA CANCELACIÓN SIGUE HASTA QUE SE PIDA OTRA JUGADA
+		columna[0] = -1;
+		busqueda = new Thread(() -> columna[0] = largo.buscarColumna(t.getBits(), true));
+		busqueda.start();
+		busqueda.join(5000);
+		assertFalse(busqueda.isAlive());
+		assertTrue(columna[0] >= 0);
+		assertEquals(0, t.getBits().getNumFichas());
+		try {
+			largo.setIteraciones(0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			//ITERACIONES NO VÁLIDAS
+		}
+	}
+}
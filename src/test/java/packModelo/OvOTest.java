@@ -51,6 +51,28 @@ public class OvOTest {
 		assertNull(pos1);
 	}
 
+	@Test
+	public void realizarJugada() {
+		ResultadoJugada res = ovo.realizarJugada(2);
+		assertEquals(0, res.getFila());
+		assertEquals(2, res.getColumna());
+		assertFalse(res.isHaGanadoA() || res.isHaGanadoB() || res.isLleno());
+		//EL RESULTADO SE REUTILIZA EN CADA TURNO
+		assertSame(res, ovo.realizarJugada(2));
+		assertEquals(1, res.getFila());
+		//GANA EL JUGADOR ROJO EN VERTICAL
+		ovo.realizarJugada(3);
+		ovo.realizarJugada(4);
+		ovo.realizarJugada(3);
+		ovo.realizarJugada(4);
+		res = ovo.realizarJugada(3);
+		assertEquals(0L, res.getLineaGanadora());
+		ovo.realizarJugada(4);
+		res = ovo.realizarJugada(3);
+		assertTrue(res.isHaGanadoB());
+		assertEquals(4, Tablero.getmTablero().getCoordenadas(res.getLineaGanadora()).size());
+	}
+
 	@Test
 	public void getNombre() {
 		assertNotNull(ovo.getNombre());
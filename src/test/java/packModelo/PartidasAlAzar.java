@@ -0,0 +1,34 @@
+package packModelo;
+
+import java.util.Random;
+
+/**
+ * Posiciones de prueba para los tests que comparan resultados exactos, como la tabla de finales y el solucionador.
+ */
+final class PartidasAlAzar {
+
+	private PartidasAlAzar() {
+	}
+
+	/**
+	 * Juega al azar sin completar nunca una línea hasta que quedan pVacias casillas libres.
+	 *
+	 * @return el tablero, o null si algún jugador se queda sin jugadas que no ganen
+	 */
+	static Tablero jugar(Tablero pTablero, int pVacias, Random pAleatorio) {
+		int casillas = pTablero.getFilas() * pTablero.getColumnas();
+		while (casillas - pTablero.getNumJugadas() > pVacias) {
+			TableroBits bits = pTablero.getBits();
+			long prohibidas = bits.columnasGanadoras(pTablero.getTurno());
+			int col = pAleatorio.nextInt(pTablero.getColumnas());
+			for (int i = 0; i < pTablero.getColumnas() && (bits.columnaLlena(col) || (prohibidas >>> col & 1) != 0); i++) {
+				col = (col + 1) % pTablero.getColumnas();
+			}
+			if (bits.columnaLlena(col) || (prohibidas >>> col & 1) != 0) {
+				return null;
+			}
+			pTablero.jugarSilencioso(col);
+		}
+		return pTablero;
+	}
+}
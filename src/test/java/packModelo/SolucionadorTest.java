@@ -0,0 +1,88 @@
+package packModelo;
+
+import org.json.simple.JSONObject;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SolucionadorTest {
+
+	/**
+	 * Comprueba el resultado, la distancia y la columna del solucionador con el recorrido completo de la tabla de
+	 * finales.
+	 */
+	private void comprobar(Solucionador pSolucionador, Tablero pTablero) {
+		Map<Long, Integer> exactos = new HashMap<>();
+		int exacto = TablaFinales.resolver(pTablero, exactos);
+		long clave = pTablero.getClave();
+		int col = pSolucionador.resolver(pTablero);
+		assertTrue(pSolucionador.isResuelto());
+		assertEquals(clave, pTablero.getClave());
+		assertEquals(TablaFinales.getResultado(exacto), pSolucionador.getResultado());
+		if (pSolucionador.getResultado() != TablaFinales.EMPATE) {
+			assertEquals(TablaFinales.getDistancia(exacto), pSolucionador.getDistancia());
+		}
+		//LA COLUMNA ELEGIDA CONSIGUE ESE RESULTADO
+		boolean color = pTablero.getTurno();
+		int fila = pTablero.jugarSilencioso(col);
+		if (pTablero.getLineaGanadora(fila, col, color) != 0) {
+			assertEquals(TablaFinales.codificar(TablaFinales.GANA, 1), exacto);
+		} else if (!pTablero.tableroLleno()) {
+			int hijo = exactos.get(TablaFinales.claveCanonica(pTablero.getBits()));
+			assertEquals(TablaFinales.GANA + TablaFinales.PIERDE - TablaFinales.getResultado(hijo),
+					TablaFinales.getResultado(exacto));
+			if (TablaFinales.getResultado(exacto) != TablaFinales.EMPATE) {
+				assertEquals(TablaFinales.getDistancia(exacto) - 1, TablaFinales.getDistancia(hijo));
+			}
+		}
+		pTablero.deshacer();
+	}
+
+	@Test
+	public void finales() {
+		Solucionador solucionador = new Solucionador(4);
+		Random r = new Random(8);
+		int resueltas = 0;
+		for (int partida = 0; partida < 30; partida++) {
+			Tablero tablero = PartidasAlAzar.jugar(new Tablero(), 12 + partida % 5, r);
+			if (tablero != null) {
+				comprobar(solucionador, tablero);
+				resueltas++;
+			}
+		}
+		assertTrue(resueltas > 10);
+	}
+
+	@Test
+	public void tableroPequeno() {
+		Solucionador solucionador = new Solucionador(4);
+		//EN 4x5 CON CUATRO EN RAYA SE PUEDE RESOLVER DESDE EL PRINCIPIO
+		Tablero tablero = new Tablero(4, 5, 4);
+		comprobar(solucionador, tablero);
+		assertTrue(solucionador.getNodos() > 0);
+		assertEquals(4L * 1024 * 1024, solucionador.getMemoria());
+		tablero.jugarSilencioso(2);
+		comprobar(solucionador, tablero);
+		//CON TRES EN RAYA GANA EL PRIMERO
+		Tablero tres = new Tablero(4, 5, 3);
+		comprobar(solucionador, tres);
+		assertEquals(TablaFinales.GANA, solucionador.getResultado());
+	}
+
+	@Test
+	public void tiempoMaximo() {
+		Solucionador solucionador = new Solucionador(4);
+		solucionador.setTiempoMaximo(50);
+		//EL TABLERO DE 6x9 VACÍO NO SE PUEDE RESOLVER EN ESE TIEMPO
+		assertEquals(-1, solucionador.resolver(new Tablero()));
+		assertFalse(solucionador.isResuelto());
+		assertTrue(solucionador.getTiempo() < 1000);
+		JSONObject json = solucionador.toJSON();
+		assertEquals(false, json.get("resuelto"));
+		assertFalse(json.containsKey("resultado"));
+	}
+}
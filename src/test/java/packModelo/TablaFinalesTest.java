@@ -0,0 +1,171 @@
+package packModelo;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TablaFinalesTest {
+
+	@Rule
+	public TemporaryFolder carpeta = new TemporaryFolder();
+
+	@Test
+	public void escribirYConsultar() throws IOException {
+		Random r = new Random(11);
+		Map<Long, Integer> resultados = new HashMap<>();
+		for (int i = 0; i < 5000; i++) {
+			resultados.put(r.nextLong(), TablaFinales.codificar(1 + r.nextInt(3), r.nextInt(64)));
+		}
+		File fichero = carpeta.newFile("finales.bin");
+		TablaFinales.escribir(fichero, 6, 9, 4, 12, resultados);
+		TablaFinales tabla = TablaFinales.abrir(fichero);
+		assertEquals(12, tabla.getMaxVacias());
+		assertTrue(tabla.getCasillas() >= 5000);
+		for (Map.Entry<Long, Integer> resultado : resultados.entrySet()) {
+			assertEquals((int) resultado.getValue(), tabla.consultar(resultado.getKey()));
+		}
+		//LAS QUE NO ESTÁN SE DESCARTAN POR LA HUELLA
+		for (int i = 0; i < 5000; i++) {
+			assertEquals(-1, tabla.consultar(r.nextLong()));
+		}
+	}
+
+	@Test
+	public void ausentes() throws IOException {
+		//UNA TABLA DE VERDAD Y MUCHAS CLAVES QUE NO ESTÁN, TODAS DESCARTADAS POR LA HUELLA
+		Random r = new Random(12);
+		Map<Long, Integer> resultados = new HashMap<>();
+		for (int i = 0; i < 20; i++) {
+			Tablero tablero = PartidasAlAzar.jugar(new Tablero(), 10, r);
+			if (tablero != null) {
+				TablaFinales.resolver(tablero, resultados);
+			}
+		}
+		File fichero = carpeta.newFile("finales.bin");
+		TablaFinales.escribir(fichero, 6, 9, 4, 10, resultados);
+		TablaFinales tabla = TablaFinales.abrir(fichero);
+		for (Map.Entry<Long, Integer> resultado : resultados.entrySet()) {
+			assertEquals((int) resultado.getValue(), tabla.consultar(resultado.getKey()));
+		}
+		int probadas = 0;
+		while (probadas < 20000000) {
+			long clave = r.nextLong();
+			if (!resultados.containsKey(clave)) {
+				assertEquals(-1, tabla.consultar(clave));
+				probadas++;
+			}
+		}
+		//Y POSICIONES DE VERDAD CON MÁS CASILLAS LIBRES, QUE TAMPOCO ESTÁN
+		for (int i = 0; i < 2000; i++) {
+			Tablero tablero = PartidasAlAzar.jugar(new Tablero(), 12 + r.nextInt(20), r);
+			if (tablero != null) {
+				assertEquals(-1, tabla.consultar(tablero));
+			}
+		}
+	}
+
+	@Test
+	public void resolver() {
+		Random r = new Random(2);
+		int resueltas = 0;
+		for (int partida = 0; partida < 10; partida++) {
+			Tablero tablero = PartidasAlAzar.jugar(new Tablero(), 10, r);
+			if (tablero == null) {
+				continue;
+			}
+			Map<Long, Integer> resultados = new HashMap<>();
+			int resultado = TablaFinales.resolver(tablero, resultados);
+			resueltas++;
+			assertEquals(54 - 10, tablero.getNumJugadas());
+			assertEquals(resultado, (int) resultados.get(TablaFinales.claveCanonica(tablero.getBits())));
+			//LA BÚSQUEDA HASTA EL FINAL DA EL MISMO RESULTADO Y LA MISMA DISTANCIA
+			OrdenadorE experto = new OrdenadorE(10);
+			experto.elegirColumna(tablero);
+			int valor = experto.getValor();
+			int distancia = TablaFinales.getDistancia(resultado);
+			switch (TablaFinales.getResultado(resultado)) {
+				case TablaFinales.GANA:
+					assertEquals(OrdenadorE.VICTORIA - tablero.getNumJugadas() - distancia, valor);
+					break;
+				case TablaFinales.PIERDE:
+					assertEquals(-(OrdenadorE.VICTORIA - tablero.getNumJugadas() - distancia), valor);
+					break;
+				default:
+					assertEquals(0, valor);
+					assertEquals(10, distancia);
+			}
+		}
+		assertTrue(resueltas > 0);
+	}
+
+	/**
+	 * @return el tablero reflejado de izquierda a derecha, con las mismas jugadas en el mismo orden
+	 */
+	private Tablero reflejar(Tablero pTablero) {
+		int[] columnas = new int[pTablero.getNumJugadas()];
+		for (int i = columnas.length - 1; i >= 0; i--) {
+			columnas[i] = pTablero.deshacer();
+		}
+		Tablero reflejado = new Tablero();
+		for (int col : columnas) {
+			pTablero.jugarSilencioso(col);
+			reflejado.jugarSilencioso(Tablero.COLUMNAS - 1 - col);
+		}
+		return reflejado;
+	}
+
+	@Test
+	public void simetricas() throws IOException {
+		Random r = new Random(8);
+		Tablero tablero = null;
+		while (tablero == null) {
+			tablero = PartidasAlAzar.jugar(new Tablero(), 10, r);
+		}
+		Tablero reflejado = reflejar(tablero);
+		assertEquals(tablero.getClave(), reflejado.getClaveEspejo());
+		//LAS DOS ORIENTACIONES SE RESUELVEN UNA SOLA VEZ
+		Map<Long, Integer> resultados = new HashMap<>();
+		int resultado = TablaFinales.resolver(tablero, resultados);
+		int tamano = resultados.size();
+		assertEquals(resultado, TablaFinales.resolver(reflejado, resultados));
+		assertEquals(tamano, resultados.size());
+		File fichero = carpeta.newFile("finales.bin");
+		TablaFinales.escribir(fichero, 6, 9, 4, 10, resultados);
+		TablaFinales tabla = TablaFinales.abrir(fichero);
+		assertEquals(resultado, tabla.consultar(tablero));
+		assertEquals(resultado, tabla.consultar(reflejado));
+	}
+
+	@Test
+	public void buscarConFinales() throws IOException {
+		Random r = new Random(4);
+		//UNA POSICIÓN EN LA QUE NO SE GANA A LA PRIMERA, PARA QUE HAYA QUE BUSCAR
+		Tablero tablero = null;
+		while (tablero == null || tablero.getBits().columnasGanadoras(tablero.getTurno()) != 0) {
+			tablero = PartidasAlAzar.jugar(new Tablero(), 12, r);
+		}
+		Map<Long, Integer> resultados = new HashMap<>();
+		TablaFinales.resolver(tablero, resultados);
+		File fichero = carpeta.newFile("finales.bin");
+		TablaFinales.escribir(fichero, 6, 9, 4, 12, resultados);
+		TablaFinales tabla = TablaFinales.abrir(fichero);
+		assertEquals((int) resultados.get(TablaFinales.claveCanonica(tablero.getBits())), tabla.consultar(tablero));
+
+		OrdenadorE sin = new OrdenadorE(12);
+		sin.elegirColumna(tablero);
+		OrdenadorE con = new OrdenadorE(12);
+		con.setFinales(tabla);
+		con.elegirColumna(tablero);
+		assertEquals(sin.getValor(), con.getValor());
+		assertTrue(con.getAciertosFinales() > 0);
+		assertTrue(con.getNodos() < sin.getNodos());
+	}
+}
@@ -0,0 +1,84 @@
+package packModelo;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TablaTransposicionTest {
+
+	private TablaTransposicion tabla;
+
+	@Before
+	public void setUp() {
+		tabla = new TablaTransposicion(1);
+	}
+
+	@Test
+	public void empaquetar() {
+		long dato = TablaTransposicion.empaquetar(-999946, 12, TablaTransposicion.SUPERIOR, 8, 255);
+		assertEquals(-999946, TablaTransposicion.getValor(dato));
+		assertEquals(12, TablaTransposicion.getProfundidad(dato));
+		assertEquals(TablaTransposicion.SUPERIOR, TablaTransposicion.getTipo(dato));
+		assertEquals(8, TablaTransposicion.getColumna(dato));
+		assertEquals(255, TablaTransposicion.getEdad(dato));
+		dato = TablaTransposicion.empaquetar(0, 0, TablaTransposicion.EXACTO, -1, 0);
+		assertNotEquals(0L, dato);
+		assertEquals(-1, TablaTransposicion.getColumna(dato));
+	}
+
+	@Test
+	public void guardarYConsultar() {
+		assertEquals(65536, tabla.getEntradas());
+		assertEquals(0L, tabla.consultar(42L));
+		tabla.guardar(42L, 17, 5, TablaTransposicion.EXACTO, 3);
+		long dato = tabla.consultar(42L);
+		assertEquals(17, TablaTransposicion.getValor(dato));
+		assertEquals(3, TablaTransposicion.getColumna(dato));
+		assertEquals(2, tabla.getConsultas());
+		assertEquals(1, tabla.getAciertos());
+		//LA MISMA POSICIÓN SE ACTUALIZA
+		tabla.guardar(42L, -4, 2, TablaTransposicion.INFERIOR, 1);
+		assertEquals(-4, TablaTransposicion.getValor(tabla.consultar(42L)));
+		tabla.limpiar();
+		assertEquals(0L, tabla.consultar(42L));
+		assertEquals(0, tabla.getAciertos());
+	}
+
+	@Test
+	public void sustitucionPorProfundidad() {
+		//TRES CLAVES QUE CAEN EN LA MISMA CASILLA
+		long a = 1L;
+		long b = mismaCasilla(a);
+		long c = mismaCasilla(b);
+		tabla.guardar(a, 1, 8, TablaTransposicion.EXACTO, 0);
+		tabla.guardar(b, 2, 3, TablaTransposicion.EXACTO, 0);
+		assertNotEquals(0L, tabla.consultar(a));
+		assertNotEquals(0L, tabla.consultar(b));
+		//NO SE SUSTITUYEN ENTRADAS MÁS PROFUNDAS DE LA MISMA BÚSQUEDA
+		tabla.guardar(c, 3, 1, TablaTransposicion.EXACTO, 0);
+		assertEquals(1, tabla.getColisiones());
+		assertEquals(0L, tabla.consultar(c));
+		//SE SUSTITUYE LA MENOS PROFUNDA
+		tabla.guardar(c, 3, 5, TablaTransposicion.EXACTO, 0);
+		assertNotEquals(0L, tabla.consultar(c));
+		assertNotEquals(0L, tabla.consultar(a));
+		assertEquals(0L, tabla.consultar(b));
+		//LAS DE UNA BÚSQUEDA ANTERIOR SIEMPRE SE PUEDEN SUSTITUIR
+		tabla.nuevaBusqueda();
+		tabla.guardar(b, 2, 1, TablaTransposicion.EXACTO, 0);
+		assertNotEquals(0L, tabla.consultar(b));
+		assertEquals(3, tabla.getColisiones());
+	}
+
+	/**
+	 * @return la primera clave mayor que pClave que va a la misma casilla
+	 */
+	private long mismaCasilla(long pClave) {
+		long clave = pClave + 1;
+		while (tabla.indice(clave) != tabla.indice(pClave)) {
+			clave++;
+		}
+		return clave;
+	}
+}
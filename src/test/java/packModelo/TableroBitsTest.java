@@ -0,0 +1,613 @@
+package packModelo;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TableroBitsTest {
+
+	private TableroBits bits;
+
+	@Before
+	public void setUp() {
+		bits = TableroBits.crear(6, 9, 4);
+	}
+
+	@Test
+	public void poner() {
+		assertEquals(0, bits.poner(3, true));
+		assertEquals(1, bits.poner(3, false));
+		assertEquals(0, bits.poner(8, false));
+		assertTrue(bits.esColor(0, 3, true));
+		assertTrue(bits.esColor(1, 3, false));
+		assertFalse(bits.esColor(1, 3, true));
+		assertTrue(bits.esColor(0, 8, false));
+		assertEquals(2, bits.getAltura(3));
+		assertEquals(3, bits.getNumFichas());
+	}
+
+	@Test
+	public void columnaLlena() {
+		for (int i = 0; i < 6; i++) {
+			assertFalse(bits.columnaLlena(0));
+			bits.poner(0, i % 2 == 0);
+		}
+		assertTrue(bits.columnaLlena(0));
+		assertFalse(bits.columnaLlena(1));
+	}
+
+	@Test
+	public void lleno() {
+		for (int col = 0; col < 9; col++) {
+			for (int fila = 0; fila < 6; fila++) {
+				assertFalse(bits.lleno());
+				bits.poner(col, true);
+			}
+		}
+		assertTrue(bits.lleno());
+		assertEquals(54, bits.getNumFichas());
+		bits.vaciar();
+		assertFalse(bits.lleno());
+		assertEquals(0, bits.getNumFichas());
+		assertFalse(bits.esColor(0, 0, true));
+	}
+
+	@Test
+	public void hayLinea() {
+		//VERTICAL
+		for (int i = 0; i < 3; i++) {
+			bits.poner(2, false);
+		}
+		assertFalse(bits.hayLinea(false));
+		bits.poner(2, false);
+		assertTrue(bits.hayLinea(false));
+		assertFalse(bits.hayLinea(true));
+		//HORIZONTAL
+		bits.vaciar();
+		for (int col = 5; col < 9; col++) {
+			bits.poner(col, true);
+		}
+		assertTrue(bits.hayLinea(true));
+		//DIAGONAL CRECIENTE
+		bits.vaciar();
+		for (int col = 0; col < 4; col++) {
+			for (int n = 0; n < col; n++) {
+				bits.poner(col, false);
+			}
+			bits.poner(col, true);
+		}
+		assertTrue(bits.hayLinea(true));
+		assertTrue(bits.formaLinea(2, 2, true));
+		assertFalse(bits.formaLinea(1, 2, false));
+		//DIAGONAL DECRECIENTE
+		bits.vaciar();
+		for (int col = 8; col > 4; col--) {
+			for (int n = 0; n < 8 - col; n++) {
+				bits.poner(col, false);
+			}
+			bits.poner(col, true);
+		}
+		assertTrue(bits.hayLinea(true));
+		assertTrue(bits.formaLinea(0, 8, true));
+	}
+
+	@Test
+	public void hayLineaSinSaltarColumna() {
+		//DOS FICHAS ARRIBA DE UNA COLUMNA Y DOS ABAJO DE LA SIGUIENTE NO SON CUATRO EN RAYA
+		for (int i = 0; i < 4; i++) {
+			bits.poner(0, true);
+		}
+		bits.poner(0, false);
+		bits.poner(0, false);
+		bits.poner(1, false);
+		bits.poner(1, false);
+		assertFalse(bits.hayLinea(false));
+		assertTrue(bits.hayLinea(true));
+		assertFalse(bits.formaLinea(4, 0, true));
+		assertTrue(bits.formaLinea(3, 0, true));
+		//FICHAS AL FINAL DE UNA FILA Y AL PRINCIPIO DE LA SIGUIENTE
+		bits.vaciar();
+		bits.poner(7, true);
+		bits.poner(8, true);
+		bits.poner(0, false);
+		bits.poner(0, true);
+		bits.poner(1, false);
+		bits.poner(1, true);
+		assertFalse(bits.hayLinea(true));
+	}
+
+	@Test
+	public void crear() {
+		assertTrue(TableroBits.crear(6, 9, 4) instanceof TableroBitsLong);
+		assertTrue(TableroBits.crear(6, 7, 4) instanceof TableroBitsLong);
+		assertTrue(TableroBits.crear(8, 8, 5) instanceof TableroBitsLong);
+		assertTrue(TableroBits.crear(9, 8, 5) instanceof TableroBitsArray);
+		try {
+			TableroBits.crear(0, 7, 4);
+			fail();
+		} catch (IllegalArgumentException e) {
+			//DIMENSIONES NO VÁLIDAS
+		}
+	}
+
+	@Test
+	public void enRayaConfigurable() {
+		//TABLERO ESTÁNDAR 6x7
+		TableroBits estandar = TableroBits.crear(6, 7, 4);
+		for (int col = 3; col < 7; col++) {
+			estandar.poner(col, false);
+		}
+		assertTrue(estandar.hayLinea(false));
+		assertTrue(estandar.formaLinea(0, 6, false));
+		//CINCO EN RAYA: CUATRO FICHAS NO BASTAN
+		TableroBits cinco = TableroBits.crear(6, 9, 5);
+		for (int col = 0; col < 4; col++) {
+			cinco.poner(col, true);
+		}
+		assertFalse(cinco.hayLinea(true));
+		assertFalse(cinco.formaLinea(0, 0, true));
+		cinco.poner(4, true);
+		assertTrue(cinco.hayLinea(true));
+		assertTrue(cinco.formaLinea(0, 0, true));
+	}
+
+	@Test
+	public void tableroGrande() {
+		TableroBits grande = TableroBits.crear(10, 12, 5);
+		//DIAGONAL DECRECIENTE QUE CRUZA VARIAS PALABRAS
+		for (int col = 11; col > 6; col--) {
+			for (int n = 0; n < 11 - col; n++) {
+				grande.poner(col, false);
+			}
+			assertFalse(grande.hayLinea(true));
+			grande.poner(col, true);
+		}
+		assertTrue(grande.hayLinea(true));
+		assertTrue(grande.formaLinea(4, 7, true));
+		assertFalse(grande.hayLinea(false));
+		long linea = grande.lineaGanadora(2, 9, true);
+		assertEquals(5, TableroBits.getLongitudLinea(linea));
+		assertEquals(4, TableroBits.getFilaLinea(linea, 0));
+		assertEquals(7, TableroBits.getColumnaLinea(linea, 0));
+		//LLENAR EL TABLERO
+		grande.vaciar();
+		for (int col = 0; col < 12; col++) {
+			for (int fila = 0; fila < 10; fila++) {
+				assertFalse(grande.lleno());
+				grande.poner(col, (col / 2 + fila) % 2 == 0);
+			}
+			assertTrue(grande.columnaLlena(col));
+		}
+		assertTrue(grande.lleno());
+	}
+
+	@Test
+	public void lineasArrayComoLong() {
+		//EN LOS TABLEROS QUE CABEN EN LOS DOS NÚCLEOS, EL DE PALABRAS DA LO MISMO QUE EL DE UN LONG
+		int[][] tamanos = {{6, 9, 4}, {8, 8, 4}, {7, 9, 5}, {4, 16, 3}, {8, 8, 8}, {2, 32, 2}};
+		Random r = new Random(11);
+		for (int[] tam : tamanos) {
+			for (int partida = 0; partida < 20; partida++) {
+				TableroBits largo = new TableroBitsLong(tam[0], tam[1], tam[2]);
+				TableroBits array = new TableroBitsArray(tam[0], tam[1], tam[2]);
+				boolean color = true;
+				while (!largo.lleno()) {
+					int col = r.nextInt(tam[1]);
+					if (largo.columnaLlena(col)) {
+						continue;
+					}
+					int fila = largo.poner(col, color);
+					array.poner(col, color);
+					assertEquals(largo.formaLinea(fila, col, color), array.formaLinea(fila, col, color));
+					for (boolean c : new boolean[]{true, false}) {
+						assertEquals(largo.hayLinea(c), array.hayLinea(c));
+						assertEquals(largo.evaluarLineas(c), array.evaluarLineas(c));
+						assertEquals(largo.evaluarAmenazas(c), array.evaluarAmenazas(c));
+					}
+					if (largo.hayLinea(color)) {
+						break;
+					}
+					assertEquals(largo.completaLinea(fila, col, color), array.completaLinea(fila, col, color));
+					color = !color;
+				}
+			}
+		}
+	}
+
+	@Test
+	public void lineasArrayGrande() {
+		//CON VARIAS PALABRAS SE COMPARA CON RECORRER LAS LÍNEAS CASILLA A CASILLA
+		int[][] tamanos = {{9, 8, 4}, {10, 12, 5}, {7, 20, 4}, {12, 12, 8}, {3, 64, 3}};
+		Random r = new Random(13);
+		for (int[] tam : tamanos) {
+			for (int partida = 0; partida < 10; partida++) {
+				TableroBits array = TableroBits.crear(tam[0], tam[1], tam[2]);
+				assertTrue(array instanceof TableroBitsArray);
+				boolean color = true;
+				while (!array.lleno()) {
+					int col = r.nextInt(tam[1]);
+					if (array.columnaLlena(col)) {
+						continue;
+					}
+					int fila = array.poner(col, color);
+					assertEquals(formaLineaCasillaACasilla(array, fila, col, color), array.formaLinea(fila, col, color));
+					for (boolean c : new boolean[]{true, false}) {
+						assertEquals(hayLineaCasillaACasilla(array, c), array.hayLinea(c));
+						assertEquals(evaluarCasillaACasilla(array, c), array.evaluarLineas(c));
+						assertEquals(amenazasCasillaACasilla(array, c), array.evaluarAmenazas(c));
+					}
+					if (array.hayLinea(color)) {
+						break;
+					}
+					color = !color;
+				}
+			}
+		}
+	}
+
+	private static boolean formaLineaCasillaACasilla(TableroBits pBits, int pFila, int pColumna, boolean pColor) {
+		for (int l : pBits.lineasDeCasilla[pColumna * pBits.filas + pFila]) {
+			int mias = 0;
+			for (int i = 0; i < pBits.enRaya; i++) {
+				int casilla = pBits.casillasLineas[l * pBits.enRaya + i];
+				if (pBits.esColor(casilla % pBits.filas, casilla / pBits.filas, pColor)) {
+					mias++;
+				}
+			}
+			if (mias == pBits.enRaya) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean hayLineaCasillaACasilla(TableroBits pBits, boolean pColor) {
+		for (int l = 0; l < pBits.numLineas; l++) {
+			int mias = 0;
+			for (int i = 0; i < pBits.enRaya; i++) {
+				int casilla = pBits.casillasLineas[l * pBits.enRaya + i];
+				if (pBits.esColor(casilla % pBits.filas, casilla / pBits.filas, pColor)) {
+					mias++;
+				}
+			}
+			if (mias == pBits.enRaya) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int evaluarCasillaACasilla(TableroBits pBits, boolean pColor) {
+		int valor = 0;
+		for (int l = 0; l < pBits.numLineas; l++) {
+			int mias = 0;
+			int suyas = 0;
+			for (int i = 0; i < pBits.enRaya; i++) {
+				int casilla = pBits.casillasLineas[l * pBits.enRaya + i];
+				if (pBits.esColor(casilla % pBits.filas, casilla / pBits.filas, pColor)) {
+					mias++;
+				} else if (pBits.esColor(casilla % pBits.filas, casilla / pBits.filas, !pColor)) {
+					suyas++;
+				}
+			}
+			if (suyas == 0) {
+				valor += pBits.pesosLinea[mias];
+			} else if (mias == 0) {
+				valor -= pBits.pesosLinea[suyas];
+			}
+		}
+		return valor;
+	}
+
+	/**
+	 * Las amenazas como se valoraban antes de tener máscaras: recorriendo las líneas y apuntando el hueco de las que
+	 * tienen todas menos una.
+	 */
+	private static int amenazasCasillaACasilla(TableroBits pBits, boolean pColor) {
+		int casillas = pBits.filas * pBits.columnas;
+		boolean[] rojas = new boolean[casillas];
+		boolean[] azules = new boolean[casillas];
+		for (int l = 0; l < pBits.numLineas; l++) {
+			int rojasL = 0;
+			int azulesL = 0;
+			int hueco = -1;
+			for (int i = 0; i < pBits.enRaya; i++) {
+				int casilla = pBits.casillasLineas[l * pBits.enRaya + i];
+				if (pBits.tiene(casilla, true)) {
+					rojasL++;
+				} else if (pBits.tiene(casilla, false)) {
+					azulesL++;
+				} else {
+					hueco = casilla;
+				}
+			}
+			if (rojasL == pBits.enRaya - 1 && azulesL == 0) {
+				rojas[hueco] = true;
+			} else if (azulesL == pBits.enRaya - 1 && rojasL == 0) {
+				azules[hueco] = true;
+			}
+		}
+		int valor = 0;
+		for (int casilla = 0; casilla < casillas; casilla++) {
+			int fila = casilla % pBits.filas;
+			boolean debajoRojas = fila > 0 && rojas[casilla - 1];
+			boolean debajoAzules = fila > 0 && azules[casilla - 1];
+			if (rojas[casilla] && !debajoAzules) {
+				valor += (pBits.filaFavorable(fila, true) ? TableroBits.PESO_AMENAZA_BUENA : TableroBits.PESO_AMENAZA)
+						+ (debajoRojas ? TableroBits.PESO_AMENAZA_DOBLE : 0);
+			}
+			if (azules[casilla] && !debajoRojas) {
+				valor -= (pBits.filaFavorable(fila, false) ? TableroBits.PESO_AMENAZA_BUENA : TableroBits.PESO_AMENAZA)
+						+ (debajoAzules ? TableroBits.PESO_AMENAZA_DOBLE : 0);
+			}
+		}
+		return pColor ? valor : -valor;
+	}
+
+	@Test
+	public void quitar() {
+		bits.poner(3, true);
+		bits.poner(3, false);
+		bits.quitar(3);
+		assertEquals(1, bits.getAltura(3));
+		assertEquals(1, bits.getNumFichas());
+		assertTrue(bits.esColor(0, 3, true));
+		assertFalse(bits.esColor(1, 3, false));
+		bits.quitar(3);
+		assertEquals(0, bits.getNumFichas());
+		assertFalse(bits.esColor(0, 3, true));
+		TableroBits grande = TableroBits.crear(10, 12, 5);
+		grande.poner(11, false);
+		grande.quitar(11);
+		assertFalse(grande.esColor(0, 11, false));
+		assertEquals(0, grande.getAltura(11));
+	}
+
+	@Test
+	public void clave() {
+		assertEquals(0L, bits.getClave());
+		bits.poner(2, true);
+		long unaFicha = bits.getClave();
+		assertNotEquals(0L, unaFicha);
+		bits.poner(2, false);
+		bits.quitar(2);
+		assertEquals(unaFicha, bits.getClave());
+		bits.quitar(2);
+		assertEquals(0L, bits.getClave());
+		assertEquals(0L, bits.getClaveEspejo());
+		//EL MISMO COLOR EN LA MISMA CASILLA DA LA MISMA CLAVE EN OTRO TABLERO
+		TableroBits otro = TableroBits.crear(6, 9, 4);
+		otro.poner(2, true);
+		assertEquals(unaFicha, otro.getClave());
+		otro.vaciar();
+		otro.poner(2, false);
+		assertNotEquals(unaFicha, otro.getClave());
+	}
+
+	@Test
+	public void claveTransposicion() {
+		//LA MISMA POSICIÓN POR DOS ÓRDENES DE JUGADAS
+		bits.poner(0, true);
+		bits.poner(4, false);
+		bits.poner(1, true);
+		bits.poner(5, false);
+		TableroBits otro = TableroBits.crear(6, 9, 4);
+		otro.poner(1, true);
+		otro.poner(5, false);
+		otro.poner(0, true);
+		otro.poner(4, false);
+		assertEquals(bits.getClave(), otro.getClave());
+		assertEquals(bits.getClaveEspejo(), otro.getClaveEspejo());
+		otro.quitar(4);
+		otro.poner(4, true);
+		assertNotEquals(bits.getClave(), otro.getClave());
+	}
+
+	@Test
+	public void claveEspejo() {
+		TableroBits espejo = TableroBits.crear(6, 9, 4);
+		bits.poner(0, true);
+		bits.poner(3, false);
+		bits.poner(3, true);
+		espejo.poner(8, true);
+		espejo.poner(5, false);
+		espejo.poner(5, true);
+		assertEquals(bits.getClave(), espejo.getClaveEspejo());
+		assertEquals(bits.getClaveEspejo(), espejo.getClave());
+		assertNotEquals(bits.getClave(), bits.getClaveEspejo());
+		//UNA POSICIÓN SIMÉTRICA ES SU PROPIO ESPEJO
+		bits.vaciar();
+		bits.poner(4, true);
+		bits.poner(4, false);
+		assertEquals(bits.getClave(), bits.getClaveEspejo());
+		//TAMBIÉN EN TABLEROS GRANDES
+		TableroBits grande = TableroBits.crear(10, 12, 5);
+		TableroBits grandeEspejo = TableroBits.crear(10, 12, 5);
+		grande.poner(1, false);
+		grandeEspejo.poner(10, false);
+		assertEquals(grande.getClave(), grandeEspejo.getClaveEspejo());
+	}
+
+	@Test
+	public void copiar() {
+		bits.poner(4, true);
+		bits.poner(4, false);
+		TableroBits copia = bits.copiar();
+		assertEquals(bits.getClave(), copia.getClave());
+		assertEquals(2, copia.getNumFichas());
+		copia.poner(4, true);
+		copia.poner(0, false);
+		assertEquals(2, bits.getNumFichas());
+		assertFalse(bits.esColor(2, 4, true));
+		assertNotEquals(bits.getClave(), copia.getClave());
+		copia.quitar(0);
+		copia.quitar(4);
+		assertEquals(bits.getClave(), copia.getClave());
+		TableroBits grande = TableroBits.crear(10, 12, 5);
+		grande.poner(11, false);
+		TableroBits copiaGrande = grande.copiar();
+		copiaGrande.poner(11, true);
+		assertFalse(grande.esColor(1, 11, true));
+		assertTrue(copiaGrande.esColor(0, 11, false));
+	}
+
+	@Test
+	public void lineas() {
+		//36 HORIZONTALES, 27 VERTICALES Y 18 EN CADA DIAGONAL
+		assertEquals(99, bits.numLineas);
+		assertEquals(3, bits.lineasDeCasilla[0].length);
+		//LA CASILLA (2, 4) ESTÁ EN 4 HORIZONTALES, 3 VERTICALES Y 3 + 3 DIAGONALES
+		assertEquals(13, bits.lineasDeCasilla[4 * 6 + 2].length);
+		for (int l : bits.lineasDeCasilla[4 * 6 + 2]) {
+			boolean esta = false;
+			for (int i = 0; i < 4; i++) {
+				esta |= bits.casillasLineas[l * 4 + i] == 4 * 6 + 2;
+			}
+			assertTrue(esta);
+		}
+	}
+
+	@Test
+	public void evaluar() {
+		assertEquals(0, bits.evaluar(true));
+		bits.poner(0, true);
+		assertEquals(0, bits.evaluar(true));
+		//UNA HORIZONTAL, UNA VERTICAL Y UNA DIAGONAL CON DOS FICHAS
+		bits.poner(1, true);
+		bits.poner(1, true);
+		assertEquals(24, bits.evaluar(true));
+		assertEquals(-24, bits.evaluar(false));
+		bits.vaciar();
+		//UN TRES ABIERTO VALE MÁS QUE CUALQUIER COSA DEL RIVAL CON UNA FICHA MENOS
+		bits.poner(4, true);
+		bits.poner(4, true);
+		bits.poner(4, true);
+		bits.poner(3, false);
+		bits.poner(5, false);
+		assertTrue(bits.evaluar(true) > 64);
+		//LOS DOS NÚCLEOS VALORAN IGUAL, CON Y SIN EL CASO DE CUATRO EN RAYA
+		Random r = new Random(5);
+		for (int partida = 0; partida < 40; partida++) {
+			int enRaya = partida % 2 == 0 ? 4 : 5;
+			TableroBits largo = TableroBits.crear(6, 9, enRaya);
+			TableroBits array = new TableroBitsArray(6, 9, enRaya);
+			boolean color = true;
+			for (int jugada = 0; jugada < 30; jugada++) {
+				int col = r.nextInt(9);
+				if (!largo.columnaLlena(col)) {
+					largo.poner(col, color);
+					array.poner(col, color);
+					color = !color;
+					assertEquals(largo.evaluar(true), array.evaluar(true));
+					assertEquals(largo.evaluar(false), -array.evaluar(true));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void columnasGanadoras() {
+		assertEquals(0L, bits.columnasGanadoras(true));
+		//TRES HORIZONTALES CON LOS DOS EXTREMOS LIBRES
+		bits.poner(2, true);
+		bits.poner(3, true);
+		bits.poner(4, true);
+		assertEquals(1L << 1 | 1L << 5, bits.columnasGanadoras(true));
+		assertEquals(0L, bits.columnasGanadoras(false));
+		//CON UN HUECO EN MEDIO TAMBIÉN CUENTA
+		bits.vaciar();
+		bits.poner(0, false);
+		bits.poner(1, false);
+		bits.poner(3, false);
+		assertEquals(1L << 2, bits.columnasGanadoras(false));
+		//LA CASILLA QUE FALTA ESTÁ EN EL AIRE: TODAVÍA NO SE PUEDE JUGAR
+		bits.vaciar();
+		bits.poner(0, true);
+		bits.poner(1, false);
+		bits.poner(1, true);
+		bits.poner(2, false);
+		bits.poner(2, false);
+		bits.poner(2, true);
+		assertEquals(0L, bits.columnasGanadoras(true));
+		bits.poner(3, false);
+		bits.poner(3, false);
+		assertEquals(0L, bits.columnasGanadoras(true));
+		bits.poner(3, false);
+		assertEquals(1L << 3, bits.columnasGanadoras(true));
+		//LOS DOS NÚCLEOS DAN LO MISMO QUE PROBAR COLUMNA A COLUMNA
+		Random r = new Random(7);
+		for (int partida = 0; partida < 40; partida++) {
+			int enRaya = partida % 2 == 0 ? 4 : 3;
+			TableroBits largo = TableroBits.crear(6, 9, enRaya);
+			TableroBits array = new TableroBitsArray(6, 9, enRaya);
+			boolean color = true;
+			for (int jugada = 0; jugada < 40; jugada++) {
+				int col = r.nextInt(9);
+				if (largo.columnaLlena(col)) {
+					continue;
+				}
+				int fila = largo.poner(col, color);
+				array.poner(col, color);
+				if (largo.formaLinea(fila, col, color)) {
+					break;
+				}
+				color = !color;
+				for (boolean c : new boolean[]{true, false}) {
+					long esperadas = 0L;
+					for (int i = 0; i < 9; i++) {
+						if (!array.columnaLlena(i)) {
+							int f = array.poner(i, c);
+							if (array.formaLinea(f, i, c)) {
+								esperadas |= 1L << i;
+							}
+							array.quitar(i);
+						}
+					}
+					assertEquals(esperadas, largo.columnasGanadoras(c));
+					assertEquals(esperadas, array.columnasGanadoras(c));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void evaluarAmenazas() {
+		assertEquals(0, bits.evaluarAmenazas(true));
+		//DOS AMENAZAS ROJAS EN LA FILA 0, QUE ES IMPAR CONTANDO DESDE 1 Y LES FAVORECE
+		bits.poner(1, true);
+		bits.poner(2, true);
+		bits.poner(3, true);
+		assertEquals(2 * TableroBits.PESO_AMENAZA_BUENA, bits.evaluarAmenazas(true));
+		assertEquals(-2 * TableroBits.PESO_AMENAZA_BUENA, bits.evaluarAmenazas(false));
+		//ENCIMA DE CADA UNA OTRA ROJA EN LA FILA 1, QUE NO LES FAVORECE PERO ESTÁ APILADA
+		bits.poner(1, true);
+		bits.poner(2, true);
+		bits.poner(3, true);
+		assertEquals(2 * (TableroBits.PESO_AMENAZA_BUENA + TableroBits.PESO_AMENAZA + TableroBits.PESO_AMENAZA_DOBLE),
+				bits.evaluarAmenazas(true));
+		//UNA AMENAZA AZUL JUSTO ENCIMA DE UNA ROJA NO VALE NADA
+		bits.vaciar();
+		for (int c = 0; c < 3; c++) {
+			bits.poner(c, true);
+			bits.poner(c, false);
+		}
+		assertEquals(TableroBits.PESO_AMENAZA_BUENA, bits.evaluarAmenazas(true));
+		//CON EL ROJO ENCIMA, LA AZUL DE LA FILA 1 SÍ CUENTA Y LES FAVORECE
+		bits.vaciar();
+		for (int c = 0; c < 3; c++) {
+			bits.poner(c, true);
+			bits.poner(c, false);
+		}
+		bits.poner(3, false);
+		assertEquals(TableroBits.PESO_AMENAZA_BUENA, bits.evaluarAmenazas(false));
+		//CON UN NÚMERO IMPAR DE FILAS NINGUNA FILA FAVORECE
+		TableroBits impar = TableroBits.crear(5, 7, 4);
+		impar.poner(1, true);
+		impar.poner(2, true);
+		impar.poner(3, true);
+		assertEquals(2 * TableroBits.PESO_AMENAZA, impar.evaluarAmenazas(true));
+	}
+}
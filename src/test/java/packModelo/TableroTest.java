@@ -675,6 +675,25 @@ public class TableroTest {
 		assertEquals(Tablero.getmTablero().getCoordenadasGanadoras(0, 2, true).size(), 4);
 	}
 
+	@Test
+	public void getLineaGanadora() {
+		Tablero tablero = Tablero.getmTablero();
+		//SIN CUATRO EN RAYA
+		tablero.introducirFicha(0, true);
+		tablero.introducirFicha(1, true);
+		tablero.introducirFicha(2, true);
+		assertEquals(0L, tablero.getLineaGanadora(0, 2, true));
+		assertEquals(0L, tablero.getLineaGanadora(0, 2, false));
+		//CINCO EN RAYA EN UNA FILA
+		tablero.introducirFicha(4, true);
+		tablero.introducirFicha(3, true);
+		long linea = tablero.getLineaGanadora(0, 3, true);
+		assertEquals(5, tablero.getCoordenadas(linea).size());
+		assertEquals(linea, tablero.getLineaGanadora(0, 0, true));
+		//CASILLA FUERA DEL TABLERO
+		assertEquals(0L, tablero.getLineaGanadora(6, 3, true));
+	}
+
 	private void checkCoordenadasGanadoras(int cambioColumnas, int inicio, boolean diagonal) {
 		Tablero tablero = Tablero.getmTablero();
 		tablero.inicializarTablero();
@@ -778,4 +797,61 @@ public class TableroTest {
 						new ArrayList<>(), diagonalUp, true).size(),
 				2);
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void jugarSilencioso() {
+		Tablero tablero = new Tablero();
+		int[] avisos = {0};
+		tablero.addObserver((o, arg) -> avisos[0]++);
+		assertTrue(tablero.getTurno());
+		assertEquals(0, tablero.jugarSilencioso(3));
+		assertFalse(tablero.getTurno());
+		long clave = tablero.getClave();
+		assertEquals(1, tablero.jugarSilencioso(3));
+		assertTrue(tablero.esColor(0, 3, true));
+		assertTrue(tablero.esColor(1, 3, false));
+		assertTrue(tablero.getTurno());
+		assertEquals(0, avisos[0]);
+		//COLUMNA LLENA
+		for (int i = 2; i < tablero.getFilas(); i++) {
+			tablero.jugarSilencioso(3);
+		}
+		assertEquals(-1, tablero.jugarSilencioso(3));
+		assertEquals(tablero.getFilas(), tablero.getNumJugadas());
+		for (int i = 2; i < tablero.getFilas(); i++) {
+			assertEquals(3, tablero.deshacer());
+		}
+		assertEquals(3, tablero.deshacer());
+		assertEquals(clave, tablero.getClave());
+		assertFalse(tablero.esColor(1, 3, false));
+		assertFalse(tablero.getTurno());
+		assertEquals(3, tablero.deshacer());
+		assertEquals(-1, tablero.deshacer());
+		assertEquals(0L, tablero.getClave());
+		assertEquals(0, avisos[0]);
+	}
+
+	@Test
+	public void deshacer() {
+		Tablero tablero = Tablero.getmTablero();
+		assertEquals(0L, tablero.getClave());
+		//TAMBIÉN SE DESHACEN LAS FICHAS INTRODUCIDAS DESDE LOS MODOS DE JUEGO
+		tablero.introducirFicha(1, true);
+		tablero.colocarFicha(6, false);
+		assertTrue(tablero.getTurno());
+		tablero.jugarSilencioso(6);
+		assertTrue(tablero.esColor(1, 6, true));
+		assertEquals(6, tablero.deshacer());
+		assertEquals(6, tablero.deshacer());
+		assertEquals(1, tablero.deshacer());
+		assertEquals(0L, tablero.getClave());
+		assertFalse(tablero.esColor(0, 1, true));
+		//POSICIONES SIMÉTRICAS
+		tablero.introducirFicha(1, true);
+		Tablero otro = new Tablero();
+		otro.introducirFicha(7, true);
+		assertEquals(tablero.getClave(), otro.getClaveEspejo());
+		tablero.inicializarTablero();
+		assertEquals(0, tablero.getNumJugadas());
+	}
+}